@@ -1,5 +1,11 @@
 package com.netflix.oss.backend.controller;
 
+import com.netflix.oss.common.logging.PayloadSampler;
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
+import com.netflix.oss.common.request.RequestId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,9 +13,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/backend")
@@ -20,33 +28,82 @@ public class BackendController {
     @Value("${backend.version:1.0.0}")
     private String backendVersion;
 
+    private final PayloadSampler payloadSampler;
+    private final Timer processTimer;
+    private final Timer processBatchTimer;
+
+    public BackendController(PayloadSampler payloadSampler, MeterRegistry meterRegistry) {
+        this.payloadSampler = payloadSampler;
+        this.processTimer = processTimer(meterRegistry, false);
+        this.processBatchTimer = processTimer(meterRegistry, true);
+    }
+
     @PostMapping("/process")
-    public ResponseEntity<Map<String, Object>> process(@RequestBody Map<String, Object> payload) {
-        logger.info("Backend processing request: {}", payload);
+    public ResponseEntity<UserResponse> process(@RequestBody UserRequest payload) {
+        long start = System.nanoTime();
+        payloadSampler.atInfo(logger, "process").log("Backend processing request: {}", payload);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("servedBy", "backend");
-        response.put("backendVersion", backendVersion);
-        response.put("processedAt", Instant.now().toString());
-        response.put("requestId", UUID.randomUUID().toString());
-        response.put("inputPayload", payload);
-        response.put("status", "SUCCESS");
+        UserResponse response = processPayload(payload, requestId());
         
-        // Simulate some business logic
-        String operation = (String) payload.getOrDefault("operation", "unknown");
-        response.put("operationProcessed", operation);
+        payloadSampler.atInfo(logger, "process").log("Backend response: {}", response);
+        processTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/process-batch")
+    public ResponseEntity<List<UserResponse>> processBatch(@RequestBody List<UserRequest> payloads) {
+        long start = System.nanoTime();
+        logger.debug("Backend processing batch of {} requests", payloads.size());
+        payloadSampler.atInfo(logger, "process-batch").log("Backend processing batch: {}", payloads);
         
-        if (payload.containsKey("userId")) {
-            response.put("userVerified", true);
-            response.put("userId", payload.get("userId"));
+        // The items of a batch arrived in one request and share its ID
+        String requestId = requestId();
+        List<UserResponse> responses = new ArrayList<>(payloads.size());
+        for (UserRequest payload : payloads) {
+            responses.add(processPayload(payload, requestId));
         }
         
-        if (payload.containsKey("name")) {
-            response.put("greeting", "Hello from Backend, " + payload.get("name") + "!");
-        }
+        processBatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return ResponseEntity.ok(responses);
+    }
+
+    private static Timer processTimer(MeterRegistry meterRegistry, boolean batch) {
+        return Timer.builder("backend.process")
+                .description("Time backend spends processing a request, excluding body decoding and encoding")
+                .tag("batch", String.valueOf(batch))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // The ID cloud-gateway assigned, as RequestIdFilter put it in the MDC
+    private static String requestId() {
+        String requestId = RequestId.current();
+        return requestId != null ? requestId : RequestId.next();
+    }
+
+    private UserResponse processPayload(UserRequest payload, String requestId) {
+        // Simulate some business logic
+        String operation = payload.operation() != null ? payload.operation() : "unknown";
+        boolean hasUser = payload.userId() != null;
+        String greeting = payload.name() != null ? "Hello from Backend, " + payload.name() + "!" : null;
         
-        logger.info("Backend response: {}", response);
-        return ResponseEntity.ok(response);
+        return new UserResponse(
+                "backend",
+                backendVersion,
+                Instant.now().toString(),
+                requestId,
+                payload,
+                "SUCCESS",
+                operation,
+                hasUser ? Boolean.TRUE : null,
+                payload.userId(),
+                greeting,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
     }
 
     @GetMapping("/health")
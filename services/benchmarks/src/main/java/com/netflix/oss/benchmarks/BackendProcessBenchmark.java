@@ -0,0 +1,87 @@
+package com.netflix.oss.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.netflix.oss.backend.controller.BackendController;
+import com.netflix.oss.common.logging.PayloadSampler;
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Backend: decode request, BackendController.process, encode response, on both wire formats.
+// mapRoundTrip is the untyped HashMap version the service used before the shared records.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BackendProcessBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private BackendController controller;
+    private byte[] requestBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        mapper = "cbor".equals(format) ? json.copyWith(new CBORFactory()) : json;
+
+        controller = new BackendController(new PayloadSampler(0, Map.of()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(controller, "backendVersion", "1.0.0");
+
+        requestBytes = mapper.writeValueAsBytes(UserRequest.forUser("getUserStatus", "user-42", "graphql-api"));
+    }
+
+    @Benchmark
+    public byte[] typedRoundTrip() throws Exception {
+        UserRequest request = mapper.readValue(requestBytes, UserRequest.class);
+        UserResponse response = controller.process(request).getBody();
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapRoundTrip() throws Exception {
+        Map<String, Object> payload = mapper.readValue(requestBytes, MAP_TYPE);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("servedBy", "backend");
+        response.put("backendVersion", "1.0.0");
+        response.put("processedAt", Instant.now().toString());
+        response.put("requestId", UUID.randomUUID().toString());
+        response.put("inputPayload", payload);
+        response.put("status", "SUCCESS");
+        response.put("operationProcessed", payload.getOrDefault("operation", "unknown"));
+        if (payload.containsKey("userId")) {
+            response.put("userVerified", true);
+            response.put("userId", payload.get("userId"));
+        }
+
+        return mapper.writeValueAsBytes(response);
+    }
+}
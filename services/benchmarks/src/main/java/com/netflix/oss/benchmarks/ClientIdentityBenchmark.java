@@ -0,0 +1,83 @@
+package com.netflix.oss.benchmarks;
+
+import com.netflix.oss.benchmarks.support.BenchmarkCertificates;
+import com.netflix.oss.middleware.security.ClientIdentity;
+import com.netflix.oss.middleware.security.ClientIdentityResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Middleware: cost of turning the peer certificate into a client identity on each request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientIdentityBenchmark {
+
+    private static final String CERTIFICATE_ATTRIBUTE = "jakarta.servlet.request.X509Certificate";
+
+    private BenchmarkCertificates certificates;
+    private X509Certificate clientCert;
+    private MethodHandle extractCN;
+    private MethodHandle parse;
+    private ClientIdentityResolver resolver;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() throws Exception {
+        certificates = BenchmarkCertificates.generate();
+        clientCert = certificates.clientCertificate();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(ClientIdentityResolver.class, MethodHandles.lookup());
+        extractCN = lookup.findStatic(ClientIdentityResolver.class, "extractCN",
+                MethodType.methodType(String.class, String.class));
+        parse = lookup.findStatic(ClientIdentityResolver.class, "parse",
+                MethodType.methodType(ClientIdentity.class, X509Certificate.class));
+
+        resolver = new ClientIdentityResolver(10_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest();
+        request.setAttribute(CERTIFICATE_ATTRIBUTE, new X509Certificate[]{clientCert});
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        certificates.close();
+    }
+
+    // Per-request work before identities were cached: format the subject DN and split out the CN
+    @Benchmark
+    public String extractCN() throws Throwable {
+        return (String) extractCN.invokeExact(clientCert.getSubjectX500Principal().getName());
+    }
+
+    // Request from a client whose certificate has been seen, served from the identity cache
+    @Benchmark
+    public ClientIdentity resolveCached() {
+        return resolver.resolve(request);
+    }
+
+    // Full parse including issuer, validity and fingerprint, as on a certificate's first request
+    @Benchmark
+    public ClientIdentity resolveUncached() throws Throwable {
+        return (ClientIdentity) parse.invokeExact(clientCert);
+    }
+}
@@ -0,0 +1,66 @@
+package com.netflix.oss.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
+import com.netflix.oss.userbff.controller.GraphQLController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+// User BFF: mapping a middleware response onto the GraphQL UserStatus type, alone and
+// together with decoding the response body as the userStatus data loader does
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphQLMappingBenchmark {
+
+    private ObjectMapper mapper;
+    private GraphQLController controller;
+    private MethodHandle toUserStatus;
+    private UserResponse response;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        controller = new GraphQLController(null, null, new DefaultBatchLoaderRegistry(), 100);
+        toUserStatus = MethodHandles.privateLookupIn(GraphQLController.class, MethodHandles.lookup())
+                .findVirtual(GraphQLController.class, "toUserStatus",
+                        MethodType.methodType(GraphQLController.UserStatus.class, String.class, UserResponse.class));
+
+        response = new UserResponse("backend", "1.0.0", "2024-01-01T00:00:00Z", "3f1c2d4e-0000-0000-0000-000000000000",
+                UserRequest.forUser("getUserStatus", "user-42", "graphql-api"), "SUCCESS", "getUserStatus",
+                true, "user-42", null, null, null, null, null, null)
+                .withMtls(true, "user-bff");
+        responseBytes = mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public GraphQLController.UserStatus toUserStatus() throws Throwable {
+        return (GraphQLController.UserStatus) toUserStatus.invokeExact(controller, "user-42", response);
+    }
+
+    @Benchmark
+    public GraphQLController.UserStatus decodeAndMap() throws Throwable {
+        UserResponse decoded = mapper.readValue(responseBytes, UserResponse.class);
+        return (GraphQLController.UserStatus) toUserStatus.invokeExact(controller, "user-42", decoded);
+    }
+}
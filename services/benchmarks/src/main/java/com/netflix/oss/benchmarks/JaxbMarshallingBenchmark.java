@@ -0,0 +1,103 @@
+package com.netflix.oss.benchmarks;
+
+import com.netflix.oss.userbff.soap.StreamingSaajSoapMessage;
+import com.netflix.oss.userbff.soap.generated.GetUserStatusBatchResponse;
+import com.netflix.oss.userbff.soap.generated.UserStatus;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.SOAPConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.springframework.ws.stream.StreamingPayload;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+// User BFF: writing a SOAP GetUserStatusBatchResponse of the given size the two ways Spring-WS can.
+//   dom        marshalled into the SAAJ body, then the SAAJ message is serialised
+//   streaming  marshalled through StAX while StreamingSaajSoapMessage writes the envelope
+// The context is created once, as Spring-WS caches it per type; a marshaller is created per call,
+// as Spring-WS does.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JaxbMarshallingBenchmark {
+
+    @Param({"1", "1000"})
+    public int size;
+
+    private JAXBContext context;
+    private MessageFactory messageFactory;
+    private GetUserStatusBatchResponse response;
+
+    @Setup
+    public void setup() throws Exception {
+        context = JAXBContext.newInstance(GetUserStatusBatchResponse.class);
+        messageFactory = MessageFactory.newInstance(SOAPConstants.SOAP_1_1_PROTOCOL);
+
+        response = new GetUserStatusBatchResponse();
+        for (int i = 0; i < size; i++) {
+            UserStatus status = new UserStatus();
+            status.setUserId("user-" + i);
+            status.setStatus("ACTIVE");
+            status.setServedBy("backend");
+            status.setMtlsVerified(true);
+            status.setClientCN("user-bff");
+            status.setBackendVersion("1.0.0");
+            response.getUserStatus().add(status);
+        }
+    }
+
+    @Benchmark
+    public byte[] dom() throws Exception {
+        SaajSoapMessage message = new SaajSoapMessage(messageFactory.createMessage(), true, messageFactory);
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.marshal(response, message.getPayloadResult());
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * size);
+        message.writeTo(out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] streaming() throws Exception {
+        StreamingSaajSoapMessage message = new StreamingSaajSoapMessage(messageFactory.createMessage(), messageFactory);
+        message.setStreamingPayload(new StreamingPayload() {
+            @Override
+            public QName getName() {
+                return new QName("http://netflix.oss/user", "GetUserStatusBatchResponse");
+            }
+
+            @Override
+            public void writeTo(XMLStreamWriter writer) throws XMLStreamException {
+                try {
+                    Marshaller marshaller = context.createMarshaller();
+                    marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+                    marshaller.marshal(response, writer);
+                } catch (JAXBException e) {
+                    throw new XMLStreamException(e);
+                }
+            }
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * size);
+        message.writeTo(out);
+        return out.toByteArray();
+    }
+}
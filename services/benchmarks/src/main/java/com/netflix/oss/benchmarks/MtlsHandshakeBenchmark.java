@@ -0,0 +1,137 @@
+package com.netflix.oss.benchmarks;
+
+import com.netflix.oss.benchmarks.support.BenchmarkCertificates;
+import com.netflix.oss.userbff.config.MtlsConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.impl.bootstrap.HttpServer;
+import org.apache.hc.core5.http.impl.bootstrap.ServerBootstrap;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+// User BFF -> middleware: the MtlsConfig async client against a local mTLS stub.
+//   keep-alive  pooled connection, no handshake
+//   resumed     new connection per call, TLS session resumed from the client session cache
+//   full        new connection per call with the session cache cleared, full mTLS handshake
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MtlsHandshakeBenchmark {
+
+    @Param({"keep-alive", "resumed", "full"})
+    public String connection;
+
+    private BenchmarkCertificates certificates;
+    private HttpServer server;
+    private PoolingAsyncClientConnectionManager connectionManager;
+    private CloseableHttpAsyncClient client;
+    private String url;
+
+    @Setup
+    public void setup() throws Exception {
+        certificates = BenchmarkCertificates.generate();
+        char[] password = BenchmarkCertificates.PASSWORD.toCharArray();
+
+        SSLContext serverSslContext = SSLContextBuilder.create()
+                .loadKeyMaterial(certificates.serverKeyStore(), password, password)
+                .loadTrustMaterial(certificates.trustStore(), password)
+                .build();
+        server = ServerBootstrap.bootstrap()
+                .setListenerPort(0)
+                .setSslContext(serverSslContext)
+                .setSslSetupHandler(parameters -> parameters.setNeedClientAuth(true))
+                .register("/api/mw/health", (req, resp, ctx) ->
+                        resp.setEntity(new StringEntity("{\"status\":\"UP\"}", ContentType.APPLICATION_JSON)))
+                .create();
+        server.start();
+        url = "https://localhost:" + server.getLocalPort() + "/api/mw/health";
+
+        MtlsConfig config = new MtlsConfig();
+        ReflectionTestUtils.setField(config, "trustStorePath", certificates.trustStore().toString());
+        ReflectionTestUtils.setField(config, "trustStorePassword", BenchmarkCertificates.PASSWORD);
+        ReflectionTestUtils.setField(config, "keyStorePath", certificates.clientKeyStore().toString());
+        ReflectionTestUtils.setField(config, "keyStorePassword", BenchmarkCertificates.PASSWORD);
+        ReflectionTestUtils.setField(config, "keyPassword", BenchmarkCertificates.PASSWORD);
+        ReflectionTestUtils.setField(config, "poolMaxTotal", 10);
+        ReflectionTestUtils.setField(config, "poolMaxPerRoute", 10);
+        ReflectionTestUtils.setField(config, "poolTimeToLive", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(config, "poolValidateAfterInactivity", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "poolIdleEviction", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "poolLeaseTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(config, "responseTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(config, "keepAlive", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "httpVersion", "http1");
+
+        connectionManager = config.mtlsAsyncConnectionManager();
+        client = config.mtlsAsyncClient(connectionManager, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.close(CloseMode.IMMEDIATE);
+        connectionManager.close(CloseMode.IMMEDIATE);
+        server.close(CloseMode.IMMEDIATE);
+        certificates.close();
+    }
+
+    @Benchmark
+    public String call() throws Exception {
+        SimpleRequestBuilder builder = SimpleRequestBuilder.get(url);
+        if (!"keep-alive".equals(connection)) {
+            // Server closes after each response so every call opens a new connection
+            builder.setHeader(HttpHeaders.CONNECTION, "close");
+        }
+        SimpleHttpRequest request = builder.build();
+        HttpClientContext context = HttpClientContext.create();
+        String body = client.execute(request, context, null).get(10, TimeUnit.SECONDS).getBodyText();
+        if ("full".equals(connection)) {
+            clearSessionCache(context);
+        }
+        return body;
+    }
+
+    private static void clearSessionCache(HttpClientContext context) {
+        SSLSession session = context.getSSLSession();
+        SSLSessionContext sessionContext = session != null ? session.getSessionContext() : null;
+        if (sessionContext == null) {
+            throw new IllegalStateException("No TLS session on the benchmark connection");
+        }
+        for (byte[] id : Collections.list(sessionContext.getIds())) {
+            SSLSession cached = sessionContext.getSession(id);
+            if (cached != null) {
+                cached.invalidate();
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.netflix.oss.benchmarks;
+
+import com.netflix.oss.benchmarks.support.BenchmarkCertificates;
+import com.netflix.oss.userbff.config.MtlsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.apache.tomcat.util.net.SSLHostConfigCertificate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// User BFF -> middleware: bursts of concurrent calls from the MtlsConfig async client to an
+// embedded Tomcat configured like middleware (mTLS required, h2 offered through ALPN).
+//   http1  every call in flight needs its own pooled connection and handshake
+//   http2  all calls are streams on one connection
+// The score is the latency of a whole burst (p99 in the sample-time output). The connections and
+// handshakes each mode needed are printed at the end of every trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MtlsMultiplexBenchmark {
+
+    @Param({"http1", "http2"})
+    public String version;
+
+    @Param({"16", "128"})
+    public int concurrency;
+
+    private BenchmarkCertificates certificates;
+    private Path tomcatDir;
+    private Tomcat tomcat;
+    private MeterRegistry meterRegistry;
+    private PoolingAsyncClientConnectionManager connectionManager;
+    private CloseableHttpAsyncClient client;
+    private String url;
+    private long bursts;
+
+    @Setup
+    public void setup() throws Exception {
+        certificates = BenchmarkCertificates.generate();
+        tomcatDir = Files.createTempDirectory("benchmark-tomcat");
+        tomcat = startServer();
+        url = "https://localhost:" + tomcat.getConnector().getLocalPort() + "/api/mw/health";
+
+        MtlsConfig config = new MtlsConfig();
+        ReflectionTestUtils.setField(config, "trustStorePath", certificates.trustStore().toString());
+        ReflectionTestUtils.setField(config, "trustStorePassword", BenchmarkCertificates.PASSWORD);
+        ReflectionTestUtils.setField(config, "keyStorePath", certificates.clientKeyStore().toString());
+        ReflectionTestUtils.setField(config, "keyStorePassword", BenchmarkCertificates.PASSWORD);
+        ReflectionTestUtils.setField(config, "keyPassword", BenchmarkCertificates.PASSWORD);
+        ReflectionTestUtils.setField(config, "poolMaxTotal", 200);
+        ReflectionTestUtils.setField(config, "poolMaxPerRoute", 200);
+        ReflectionTestUtils.setField(config, "poolTimeToLive", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(config, "poolValidateAfterInactivity", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "poolIdleEviction", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "poolLeaseTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(config, "responseTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(config, "keepAlive", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "httpVersion", version);
+
+        meterRegistry = new SimpleMeterRegistry();
+        connectionManager = config.mtlsAsyncConnectionManager();
+        client = config.mtlsAsyncClient(connectionManager, meterRegistry);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        double opened = meterRegistry.get("middleware.connections.opened").counter().count();
+        double open = meterRegistry.get("middleware.connections.open").gauge().value();
+        System.out.printf("%n%s x%d: %.0f connections opened (one mTLS handshake each), %.0f still open, %.3f handshakes per burst%n",
+                version, concurrency, opened, open, opened / Math.max(1, bursts));
+
+        client.close(CloseMode.IMMEDIATE);
+        connectionManager.close(CloseMode.IMMEDIATE);
+        tomcat.stop();
+        tomcat.destroy();
+        certificates.close();
+        deleteRecursively(tomcatDir);
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<SimpleHttpResponse>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            SimpleHttpRequest request = SimpleRequestBuilder.get(url).build();
+            responses.add(client.execute(request, null));
+        }
+        int status = 0;
+        for (Future<SimpleHttpResponse> response : responses) {
+            status += response.get(10, TimeUnit.SECONDS).getCode();
+        }
+        bursts++;
+        return status;
+    }
+
+    // The relevant parts of middleware's connector: client certificate required, h2 next to
+    // HTTP/1.1 with the stream limits from Http2Config
+    private Tomcat startServer() throws Exception {
+        Tomcat server = new Tomcat();
+        server.setBaseDir(tomcatDir.toString());
+
+        Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+        connector.setPort(0);
+        connector.setScheme("https");
+        connector.setSecure(true);
+        connector.setProperty("SSLEnabled", "true");
+        SSLHostConfig sslHostConfig = new SSLHostConfig();
+        sslHostConfig.setCertificateVerification("required");
+        sslHostConfig.setTruststoreFile(certificates.trustStore().toString());
+        sslHostConfig.setTruststorePassword(BenchmarkCertificates.PASSWORD);
+        sslHostConfig.setTruststoreType("PKCS12");
+        SSLHostConfigCertificate certificate =
+                new SSLHostConfigCertificate(sslHostConfig, SSLHostConfigCertificate.Type.UNDEFINED);
+        certificate.setCertificateKeystoreFile(certificates.serverKeyStore().toString());
+        certificate.setCertificateKeystorePassword(BenchmarkCertificates.PASSWORD);
+        certificate.setCertificateKeystoreType("PKCS12");
+        sslHostConfig.addCertificate(certificate);
+        connector.addSslHostConfig(sslHostConfig);
+        Http2Protocol http2 = new Http2Protocol();
+        http2.setMaxConcurrentStreams(200);
+        http2.setMaxConcurrentStreamExecution(200);
+        connector.addUpgradeProtocol(http2);
+        server.getService().addConnector(connector);
+        server.setConnector(connector);
+
+        Context context = server.addContext("", null);
+        Tomcat.addServlet(context, "health", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setContentType("application/json");
+                response.getWriter().write("{\"status\":\"UP\"}");
+            }
+        });
+        context.addServletMappingDecoded("/api/mw/health", "health");
+        server.start();
+        return server;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.netflix.oss.benchmarks.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Throwaway server and client key pairs generated with keytool for the mTLS benchmarks,
+// plus a truststore holding both certificates. Everything lives in a temp directory.
+public final class BenchmarkCertificates implements AutoCloseable {
+
+    public static final String PASSWORD = "changeit";
+
+    private final Path dir;
+
+    private BenchmarkCertificates(Path dir) {
+        this.dir = dir;
+    }
+
+    public static BenchmarkCertificates generate() throws IOException, InterruptedException {
+        BenchmarkCertificates certificates = new BenchmarkCertificates(Files.createTempDirectory("benchmark-pki"));
+        certificates.generateKeyPair("server", "CN=localhost", "SAN=dns:localhost,ip:127.0.0.1");
+        certificates.generateKeyPair("client", "CN=user-bff,OU=Benchmarks,O=Netflix OSS", null);
+        certificates.trust("server");
+        certificates.trust("client");
+        return certificates;
+    }
+
+    public Path serverKeyStore() {
+        return dir.resolve("server.p12");
+    }
+
+    public Path clientKeyStore() {
+        return dir.resolve("client.p12");
+    }
+
+    public Path trustStore() {
+        return dir.resolve("truststore.p12");
+    }
+
+    public X509Certificate clientCertificate() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(clientKeyStore())) {
+            keyStore.load(in, PASSWORD.toCharArray());
+        }
+        return (X509Certificate) keyStore.getCertificate("client");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void generateKeyPair(String alias, String dname, String extension) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                "-genkeypair", "-alias", alias, "-keyalg", "RSA", "-keysize", "2048",
+                "-dname", dname, "-validity", "2", "-storetype", "PKCS12",
+                "-keystore", dir.resolve(alias + ".p12").toString(),
+                "-storepass", PASSWORD, "-keypass", PASSWORD));
+        if (extension != null) {
+            command.add("-ext");
+            command.add(extension);
+        }
+        keytool(command);
+        keytool(List.of("-exportcert", "-rfc", "-alias", alias,
+                "-keystore", dir.resolve(alias + ".p12").toString(), "-storepass", PASSWORD,
+                "-file", dir.resolve(alias + ".crt").toString()));
+    }
+
+    private void trust(String alias) throws IOException, InterruptedException {
+        keytool(List.of("-importcert", "-noprompt", "-alias", alias,
+                "-file", dir.resolve(alias + ".crt").toString(),
+                "-keystore", trustStore().toString(), "-storetype", "PKCS12", "-storepass", PASSWORD));
+    }
+
+    private static void keytool(List<String> args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "keytool").toString());
+        command.addAll(args);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes());
+        if (process.waitFor() != 0) {
+            throw new IOException("keytool " + args.get(0) + " failed: " + output);
+        }
+    }
+}
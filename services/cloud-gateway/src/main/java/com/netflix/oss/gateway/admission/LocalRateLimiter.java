@@ -0,0 +1,112 @@
+package com.netflix.oss.gateway.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// In-memory replacement for RedisRateLimiter behind the RequestRateLimiter filter: one token
+// bucket per route and client key, held in a bounded cache so idle clients are forgotten.
+// Limits are per gateway instance. Per-route settings come from the filter args under
+// local-rate-limiter.*, with the same meaning as redis-rate-limiter.*. A client's bucket is
+// rebuilt when the route's rate or burst capacity changes.
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    private static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    private static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    private final Config defaultConfig;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Counter> rejected = new ConcurrentHashMap<>();
+
+    public LocalRateLimiter(ConfigurationService configurationService, Config defaultConfig,
+                            long maxClients, Duration idleTimeout, MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = defaultConfig;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long now = System.nanoTime();
+        String key = routeId + ':' + id;
+        TokenBucket bucket = buckets.get(key,
+                client -> new TokenBucket(config.getReplenishRate(), config.getBurstCapacity(), now));
+        if (!bucket.hasRate(config.getReplenishRate(), config.getBurstCapacity())) {
+            // The route's limits changed since the bucket was made, it starts over with the new ones
+            bucket = buckets.asMap().compute(key, (client, existing) ->
+                    existing != null && existing.hasRate(config.getReplenishRate(), config.getBurstCapacity())
+                            ? existing
+                            : new TokenBucket(config.getReplenishRate(), config.getBurstCapacity(), now));
+        }
+
+        long remaining = bucket.tryConsume(config.getRequestedTokens(), now);
+        boolean allowed = remaining >= 0;
+        if (!allowed) {
+            rejected(routeId).increment();
+        }
+        return Mono.just(new Response(allowed, Map.of(
+                REMAINING_HEADER, String.valueOf(Math.max(remaining, 0)),
+                REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()),
+                REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()))));
+    }
+
+    // Registered once per route, rejections are most frequent exactly when the gateway is busiest
+    private Counter rejected(String routeId) {
+        return rejected.computeIfAbsent(routeId, route -> Counter.builder("gateway.admission.rejected")
+                .description("Requests turned away before reaching user-bff")
+                .tag("route", route)
+                .tag("reason", "rate-limit")
+                .register(meterRegistry));
+    }
+
+    // Checked when the route's filter args are bound, so a bad value fails the route rather than
+    // every request on it
+    @Validated
+    public static class Config {
+
+        // Tokens added per second
+        @Min(1)
+        @Max(TokenBucket.MAX_REPLENISH_RATE)
+        private int replenishRate = 100;
+
+        // Most tokens a client can save up, i.e. the largest burst allowed after a quiet period
+        @Min(0)
+        private int burstCapacity = 200;
+
+        // Tokens each request costs
+        @Min(1)
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() { return replenishRate; }
+        public Config setReplenishRate(int replenishRate) { this.replenishRate = replenishRate; return this; }
+
+        public int getBurstCapacity() { return burstCapacity; }
+        public Config setBurstCapacity(int burstCapacity) { this.burstCapacity = burstCapacity; return this; }
+
+        public int getRequestedTokens() { return requestedTokens; }
+        public Config setRequestedTokens(int requestedTokens) { this.requestedTokens = requestedTokens; return this; }
+    }
+}
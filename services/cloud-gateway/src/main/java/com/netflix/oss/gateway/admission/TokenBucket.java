@@ -0,0 +1,49 @@
+package com.netflix.oss.gateway.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket kept as a single theoretical arrival time (GCRA): taking n tokens pushes it n
+// emission intervals into the future, and a request is allowed while that stays within the
+// burst window of now. One CAS per request, no lock and no refill timer.
+final class TokenBucket {
+
+    // One token per nanosecond is the finest the emission interval can express
+    static final int MAX_REPLENISH_RATE = 1_000_000_000;
+
+    private final int replenishRate;
+    private final int burstCapacity;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int replenishRate, int burstCapacity, long nowNanos) {
+        if (replenishRate < 1 || replenishRate > MAX_REPLENISH_RATE) {
+            throw new IllegalArgumentException("replenish-rate must be between 1 and " + MAX_REPLENISH_RATE
+                    + ", was " + replenishRate);
+        }
+        this.replenishRate = replenishRate;
+        this.burstCapacity = burstCapacity;
+        this.emissionIntervalNanos = 1_000_000_000L / replenishRate;
+        this.burstNanos = emissionIntervalNanos * burstCapacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    boolean hasRate(int replenishRate, int burstCapacity) {
+        return this.replenishRate == replenishRate && this.burstCapacity == burstCapacity;
+    }
+
+    // Tokens left after taking the requested ones, or -1 when the bucket cannot cover them
+    long tryConsume(int tokens, long nowNanos) {
+        long increment = emissionIntervalNanos * tokens;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + increment;
+            if (next - nowNanos > burstNanos) {
+                return -1;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return (burstNanos - (next - nowNanos)) / emissionIntervalNanos;
+            }
+        }
+    }
+}
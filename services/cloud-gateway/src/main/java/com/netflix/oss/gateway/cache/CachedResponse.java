@@ -0,0 +1,23 @@
+package com.netflix.oss.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+// A stored 200 response: end-to-end headers and the full body, kept until ttlNanos after storedAtNanos
+public record CachedResponse(HttpHeaders headers, byte[] body, long storedAtNanos, long ttlNanos) {
+
+    // Rough heap footprint, used as the entry weight against the route's byte budget
+    int weight() {
+        int weight = body.length + 64;
+        for (var header : headers.entrySet()) {
+            weight += header.getKey().length();
+            for (String value : header.getValue()) {
+                weight += value.length();
+            }
+        }
+        return weight;
+    }
+
+    public long ageSeconds(long nowNanos) {
+        return (nowNanos - storedAtNanos) / 1_000_000_000L;
+    }
+}
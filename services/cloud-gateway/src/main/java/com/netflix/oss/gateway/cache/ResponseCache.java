@@ -0,0 +1,108 @@
+package com.netflix.oss.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.search.Search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Responses of one route, bounded by total bytes rather than entries. Caffeine evicts by its
+// frequency-aware LRU (W-TinyLFU) once the budget is exceeded, and each entry expires after its
+// own TTL, which is the route TTL capped by the response's Cache-Control max-age. The cache and
+// bytes meters read this instance, so a cache that is replaced must be closed to remove them.
+public final class ResponseCache implements AutoCloseable {
+
+    public enum Result { HIT, MISS, BYPASS }
+
+    private static final String CACHE_NAME = "gateway.response";
+
+    private final long maxBytes;
+    private final Cache<String, CachedResponse> entries;
+    private final MeterRegistry meterRegistry;
+    private final List<Meter> cacheMeters = new ArrayList<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    public ResponseCache(String routeId, long maxBytes, MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        this.meterRegistry = meterRegistry;
+        Tags tags = Tags.of("route", routeId);
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME, tags);
+        cacheMeters.addAll(Search.in(meterRegistry).tags(tags).tag("cache", CACHE_NAME).meters());
+        cacheMeters.add(Gauge.builder("gateway.cache.bytes", entries,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Bytes held by the route's response cache")
+                .tags(tags)
+                .register(meterRegistry));
+        this.hits = lookups(meterRegistry, tags, Result.HIT);
+        this.misses = lookups(meterRegistry, tags, Result.MISS);
+        this.bypasses = lookups(meterRegistry, tags, Result.BYPASS);
+    }
+
+    public CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        entries.put(key, response);
+    }
+
+    public void record(Result result) {
+        switch (result) {
+            case HIT -> hits.increment();
+            case MISS -> misses.increment();
+            case BYPASS -> bypasses.increment();
+        }
+    }
+
+    public boolean hasBudget(long maxBytes) {
+        return this.maxBytes == maxBytes;
+    }
+
+    // The request counters do not read the cache and carry on into its replacement
+    @Override
+    public void close() {
+        cacheMeters.forEach(meterRegistry::remove);
+    }
+
+    // Hit ratio is hits / (hits + misses); bypasses are requests the cache was not allowed to answer
+    private static Counter lookups(MeterRegistry meterRegistry, Tags tags, Result result) {
+        return Counter.builder("gateway.cache.requests")
+                .description("Requests on cached routes by cache outcome")
+                .tags(tags)
+                .tag("result", result.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+}
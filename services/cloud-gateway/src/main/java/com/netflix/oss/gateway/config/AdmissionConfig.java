@@ -0,0 +1,44 @@
+package com.netflix.oss.gateway.config;
+
+import com.netflix.oss.gateway.admission.LocalRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+// Beans referenced by the RequestRateLimiter default filter, as #{@localRateLimiter} and
+// #{@clientAddressKeyResolver}; no Redis involved
+@Configuration
+public class AdmissionConfig {
+
+    @Value("${gateway.admission.max-clients:100000}")
+    private long maxClients;
+
+    @Value("${gateway.admission.client-idle-timeout:10m}")
+    private Duration clientIdleTimeout;
+
+    @Bean
+    public LocalRateLimiter localRateLimiter(ConfigurationService configurationService, MeterRegistry meterRegistry) {
+        return new LocalRateLimiter(configurationService, new LocalRateLimiter.Config(),
+                maxClients, clientIdleTimeout, meterRegistry);
+    }
+
+    // Clients connect to the gateway directly, so the peer address identifies them
+    @Bean
+    public KeyResolver clientAddressKeyResolver() {
+        return exchange -> {
+            InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+            return remoteAddress != null
+                    ? Mono.just(remoteAddress.getAddress() != null
+                            ? remoteAddress.getAddress().getHostAddress()
+                            : remoteAddress.getHostString())
+                    : Mono.empty();
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.netflix.oss.gateway.config;
+
+import com.netflix.oss.common.discovery.MirrorDiscoveryClient;
+import com.netflix.oss.common.discovery.MirrorReactiveDiscoveryClient;
+import com.netflix.oss.common.discovery.RegistryMirror;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Serves lb:// lookups from a registry mirror that eureka-server keeps current by push, see
+// RegistryMirror; enabled by registry.mirror.enabled
+@Configuration
+@ConditionalOnProperty(name = "registry.mirror.enabled", havingValue = "true")
+public class RegistryMirrorConfig {
+
+    @Value("${registry.mirror.url}")
+    private URL url;
+
+    @Value("${registry.mirror.snapshot-path}")
+    private Path snapshotPath;
+
+    @Value("${registry.mirror.max-age:2m}")
+    private Duration maxAge;
+
+    @Value("${registry.mirror.read-timeout:90s}")
+    private Duration readTimeout;
+
+    @Value("${registry.mirror.reconnect-delay:5s}")
+    private Duration reconnectDelay;
+
+    @Bean
+    public RegistryMirror registryMirror(MeterRegistry meterRegistry) {
+        return new RegistryMirror(url, snapshotPath, maxAge, readTimeout, reconnectDelay, meterRegistry);
+    }
+
+    @Bean
+    public MirrorDiscoveryClient mirrorDiscoveryClient(RegistryMirror registryMirror) {
+        return new MirrorDiscoveryClient(registryMirror);
+    }
+
+    @Bean
+    public MirrorReactiveDiscoveryClient mirrorReactiveDiscoveryClient(RegistryMirror registryMirror) {
+        return new MirrorReactiveDiscoveryClient(registryMirror);
+    }
+}
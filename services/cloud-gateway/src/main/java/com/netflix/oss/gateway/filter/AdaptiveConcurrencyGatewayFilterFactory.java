@@ -0,0 +1,117 @@
+package com.netflix.oss.gateway.filter;
+
+import com.netflix.oss.gateway.admission.GradientConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Caps the requests a route has in flight to user-bff with an adaptive limit, and answers the
+// rest with an immediate 503 so they can be retried elsewhere instead of waiting in a queue.
+//
+//   - name: AdaptiveConcurrency
+//     args:
+//       initial-limit: 100
+//       min-limit: 20
+//       max-limit: 1000
+//
+// Limits are kept per route id, so they survive route refreshes (the discovery locator refreshes
+// on every registry heartbeat).
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    private final Map<String, GradientConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("initialLimit", "minLimit", "maxLimit");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        GradientConcurrencyLimit limit = limits.compute(routeId, (id, existing) ->
+                existing != null && existing.hasBounds(config.getMinLimit(), config.getMaxLimit())
+                        ? existing
+                        : new GradientConcurrencyLimit(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit()));
+
+        Gauge.builder("gateway.concurrency.limit", limits, current -> limitOf(current, routeId, false))
+                .description("Requests the route may have in flight to user-bff")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limits, current -> limitOf(current, routeId, true))
+                .description("Requests the route has in flight to user-bff")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("gateway.admission.rejected")
+                .description("Requests turned away before reaching user-bff")
+                .tag("route", routeId)
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            ServerHttpResponse response = exchange.getResponse();
+            if (!limit.tryAcquire()) {
+                rejected.increment();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                return response.setComplete();
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                // Only round trips that user-bff answered say something about its latency
+                HttpStatusCode status = response.getStatusCode();
+                boolean sample = signal == SignalType.ON_COMPLETE && (status == null || !status.is5xxServerError());
+                limit.release(sample ? System.nanoTime() - start : -1);
+            });
+        };
+    }
+
+    private static double limitOf(Map<String, GradientConcurrencyLimit> limits, String routeId, boolean inFlight) {
+        GradientConcurrencyLimit limit = limits.get(routeId);
+        if (limit == null) {
+            return 0;
+        }
+        return inFlight ? limit.getInFlight() : limit.getLimit();
+    }
+
+    public static class Config implements HasRouteId {
+
+        private int initialLimit = 100;
+        private int minLimit = 20;
+        private int maxLimit = 1000;
+        private String routeId;
+
+        public int getInitialLimit() { return initialLimit; }
+        public Config setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; return this; }
+
+        public int getMinLimit() { return minLimit; }
+        public Config setMinLimit(int minLimit) { this.minLimit = minLimit; return this; }
+
+        public int getMaxLimit() { return maxLimit; }
+        public Config setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; return this; }
+
+        @Override
+        public String getRouteId() { return routeId; }
+
+        @Override
+        public void setRouteId(String routeId) { this.routeId = routeId; }
+    }
+}
@@ -0,0 +1,42 @@
+package com.netflix.oss.gateway.filter;
+
+import com.netflix.oss.common.request.RequestId;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+// Assigns the request ID that user-bff, middleware and backend log under and pass on. A valid ID
+// sent by the client is kept, so a client can correlate its own logs with ours. The ID goes to
+// user-bff as X-Request-Id, back to the client in the same header, and into the Reactor context,
+// from where it reaches the MDC of the gateway's own log lines.
+@Component
+public class RequestIdGlobalFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String received = exchange.getRequest().getHeaders().getFirst(RequestId.HEADER);
+        String id = RequestId.isValid(received) ? received : RequestId.next();
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> headers.set(RequestId.HEADER, id))
+                .build();
+        // Set at commit so it replaces the copy user-bff returns rather than being sent twice
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            response.getHeaders().set(RequestId.HEADER, id);
+            return Mono.empty();
+        });
+        return chain.filter(exchange.mutate().request(request).build())
+                .contextWrite(Context.of(RequestId.MDC_KEY, id));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,346 @@
+package com.netflix.oss.gateway.filter;
+
+import com.netflix.oss.gateway.cache.CachedResponse;
+import com.netflix.oss.gateway.cache.ResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Serves repeated reads of a route from memory. Entries are keyed by method, normalized path,
+// sorted query parameters, Accept and, for POST, a SHA-256 of the body, so the same GraphQL query
+// maps to one entry however often it is sent.
+//
+//   - name: ResponseCache
+//     args:
+//       ttl: 5s
+//       max-bytes: 16MB
+//       max-entry-bytes: 256KB
+//       methods: GET,POST
+//
+// Only enable POST on routes where POST is a read, like GraphQL queries.
+// Cache-Control is honoured both ways:
+//   request  no-store or Authorization -> not cached; no-cache or max-age=0 -> fetched and stored again
+//   response no-store, no-cache or private, Set-Cookie or Vary: * -> not stored;
+//            max-age/s-maxage -> caps the route TTL
+// user-bff reports failures as 200 and marks them no-store, so they are never replayed.
+// Hits carry Age and X-Cache: HIT and do not reach admission control or user-bff.
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final String CACHE_HEADER = "X-Cache";
+    private static final Pattern REPEATED_SLASHES = Pattern.compile("/{2,}");
+
+    // Per-request or per-hop headers that must not be replayed from cache
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            "server-timing", "date", "age", "connection", "keep-alive", "transfer-encoding",
+            "content-length", "set-cookie", "x-cache", "x-request-id", "x-ratelimit-remaining",
+            "x-ratelimit-replenish-rate", "x-ratelimit-burst-capacity", "x-ratelimit-requested-tokens");
+
+    private final Map<String, ResponseCache> caches = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "maxBytes");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        long maxBytes = config.getMaxBytes().toBytes();
+        // A new budget needs a new cache; the old one's meters go with it, so the route's meters
+        // read the cache in use
+        ResponseCache cache = caches.compute(routeId, (id, existing) -> {
+            if (existing != null && existing.hasBudget(maxBytes)) {
+                return existing;
+            }
+            if (existing != null) {
+                existing.close();
+            }
+            return new ResponseCache(routeId, maxBytes, meterRegistry);
+        });
+
+        // Ahead of NettyWriteResponseFilter, which writes the upstream body to whatever response
+        // it sees, and therefore also ahead of the default filters
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String method = request.getMethod().name();
+            if (!config.getMethods().contains(method)) {
+                return chain.filter(exchange);
+            }
+
+            Directives directives = Directives.parse(request.getHeaders().get(HttpHeaders.CACHE_CONTROL));
+            if (directives.noStore || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+                cache.record(ResponseCache.Result.BYPASS);
+                return chain.filter(exchange);
+            }
+
+            if ("GET".equals(method)) {
+                return lookup(exchange, chain, cache, config, key(request, null), directives);
+            }
+            return ServerWebExchangeUtils.cacheRequestBody(exchange, cachedRequest -> {
+                DataBuffer body = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+                return lookup(exchange.mutate().request(cachedRequest).build(), chain, cache, config,
+                        key(request, digest(body)), directives);
+            });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> lookup(ServerWebExchange exchange, GatewayFilterChain chain, ResponseCache cache,
+                              Config config, String key, Directives directives) {
+        if (directives.noCache || directives.maxAge == 0) {
+            cache.record(ResponseCache.Result.BYPASS);
+        } else {
+            CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                cache.record(ResponseCache.Result.HIT);
+                return writeCached(exchange.getResponse(), cached);
+            }
+            cache.record(ResponseCache.Result.MISS);
+        }
+
+        exchange.getResponse().getHeaders().set(CACHE_HEADER, "MISS");
+        CachingResponse response = new CachingResponse(exchange.getResponse(), cache, key,
+                config.getTtl(), config.getMaxEntryBytes().toBytes());
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    private static Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached) {
+        response.setStatusCode(HttpStatus.OK);
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.setContentLength(cached.body().length);
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(System.nanoTime())));
+        headers.set(CACHE_HEADER, "HIT");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    // GET /api/rest//hello/?b=2&a=1  ->  GET /api/rest/hello?a=1&b=2 accept=*/*
+    private static String key(ServerHttpRequest request, String bodyDigest) {
+        StringBuilder key = new StringBuilder(request.getMethod().name()).append(' ')
+                .append(normalizePath(request.getPath().pathWithinApplication().value()));
+        char separator = '?';
+        for (Map.Entry<String, List<String>> parameter : new TreeMap<>(request.getQueryParams()).entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(parameter.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        key.append(" accept=").append(request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+        if (bodyDigest != null) {
+            key.append(" body=").append(bodyDigest);
+        }
+        return key.toString();
+    }
+
+    private static String normalizePath(String path) {
+        String normalized = StringUtils.cleanPath(REPEATED_SLASHES.matcher(path).replaceAll("/"));
+        return normalized.length() > 1 && normalized.endsWith("/")
+                ? normalized.substring(0, normalized.length() - 1)
+                : normalized;
+    }
+
+    // Empty bodies are not cached by cacheRequestBody, they hash like a zero-length body
+    private static String digest(DataBuffer body) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        if (body != null) {
+            try (DataBuffer.ByteBufferIterator buffers = body.readableByteBuffers()) {
+                buffers.forEachRemaining(sha256::update);
+            }
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    // Copies the body as it streams to the client and stores it once complete, if the response
+    // turns out to be cacheable and small enough
+    private static final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ResponseCache cache;
+        private final String key;
+        private final Duration routeTtl;
+        private final long maxEntryBytes;
+
+        CachingResponse(ServerHttpResponse delegate, ResponseCache cache, String key,
+                        Duration routeTtl, long maxEntryBytes) {
+            super(delegate);
+            this.cache = cache;
+            this.key = key;
+            this.routeTtl = routeTtl;
+            this.maxEntryBytes = maxEntryBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long ttlNanos = ttlNanos();
+            if (ttlNanos <= 0) {
+                return super.writeWith(body);
+            }
+
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            boolean[] tooLarge = {false};
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (tooLarge[0] || copy.size() + length > maxEntryBytes) {
+                            tooLarge[0] = true;
+                            return;
+                        }
+                        byte[] bytes = new byte[length];
+                        buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, length);
+                        copy.writeBytes(bytes);
+                    })
+                    .doOnComplete(() -> {
+                        if (!tooLarge[0]) {
+                            cache.put(key, new CachedResponse(storedHeaders(), copy.toByteArray(),
+                                    System.nanoTime(), ttlNanos));
+                        }
+                    }));
+        }
+
+        // Route TTL capped by the response's own freshness, or 0 when it must not be stored
+        private long ttlNanos() {
+            HttpHeaders headers = getHeaders();
+            if (!HttpStatus.OK.equals(getStatusCode())
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || headers.getVary().contains("*")
+                    || headers.getContentLength() > maxEntryBytes) {
+                return 0;
+            }
+            Directives directives = Directives.parse(headers.get(HttpHeaders.CACHE_CONTROL));
+            if (directives.noStore || directives.noCache || directives.isPrivate) {
+                return 0;
+            }
+            long ttl = routeTtl.toNanos();
+            if (directives.maxAge >= 0) {
+                ttl = Math.min(ttl, Duration.ofSeconds(directives.maxAge).toNanos());
+            }
+            return ttl;
+        }
+
+        private HttpHeaders storedHeaders() {
+            HttpHeaders stored = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!UNCACHED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    stored.addAll(name, values);
+                }
+            });
+            return HttpHeaders.readOnlyHttpHeaders(stored);
+        }
+    }
+
+    // The Cache-Control directives the cache acts on; maxAge is -1 when absent
+    private record Directives(boolean noStore, boolean noCache, boolean isPrivate, long maxAge) {
+
+        static Directives parse(List<String> headerValues) {
+            boolean noStore = false;
+            boolean noCache = false;
+            boolean isPrivate = false;
+            long maxAge = -1;
+            long sharedMaxAge = -1;
+            if (headerValues != null) {
+                for (String headerValue : headerValues) {
+                    for (String directive : headerValue.split(",")) {
+                        String name = directive.trim().toLowerCase(Locale.ROOT);
+                        if (name.equals("no-store")) {
+                            noStore = true;
+                        } else if (name.startsWith("no-cache")) {
+                            noCache = true;
+                        } else if (name.startsWith("private")) {
+                            isPrivate = true;
+                        } else if (name.startsWith("max-age=")) {
+                            maxAge = seconds(name.substring(8));
+                        } else if (name.startsWith("s-maxage=")) {
+                            sharedMaxAge = seconds(name.substring(9));
+                        }
+                    }
+                }
+            }
+            // s-maxage is meant for shared caches like this one and wins over max-age
+            return new Directives(noStore, noCache, isPrivate, sharedMaxAge >= 0 ? sharedMaxAge : maxAge);
+        }
+
+        private static long seconds(String value) {
+            try {
+                return Math.max(0, Long.parseLong(value.replace("\"", "")));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        // Longest time a response is served from cache
+        private Duration ttl = Duration.ofSeconds(5);
+
+        // Memory budget of the route's cache: bodies, headers and keys
+        private DataSize maxBytes = DataSize.ofMegabytes(16);
+
+        // Larger responses are passed through without being stored
+        private DataSize maxEntryBytes = DataSize.ofKilobytes(256);
+
+        private Set<String> methods = Set.of("GET");
+        private String routeId;
+
+        public Duration getTtl() { return ttl; }
+        public Config setTtl(Duration ttl) { this.ttl = ttl; return this; }
+
+        public DataSize getMaxBytes() { return maxBytes; }
+        public Config setMaxBytes(DataSize maxBytes) { this.maxBytes = maxBytes; return this; }
+
+        public DataSize getMaxEntryBytes() { return maxEntryBytes; }
+        public Config setMaxEntryBytes(DataSize maxEntryBytes) { this.maxEntryBytes = maxEntryBytes; return this; }
+
+        public Set<String> getMethods() { return methods; }
+        public Config setMethods(Set<String> methods) { this.methods = methods; return this; }
+
+        @Override
+        public String getRouteId() { return routeId; }
+
+        @Override
+        public void setRouteId(String routeId) { this.routeId = routeId; }
+    }
+}
@@ -0,0 +1,250 @@
+package com.netflix.oss.common.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.netflix.oss.common.state.StateFiles;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.commons.logging.Log;
+import org.springframework.boot.context.config.ConfigData;
+import org.springframework.boot.context.config.ConfigDataLoader;
+import org.springframework.boot.context.config.ConfigDataLoaderContext;
+import org.springframework.boot.context.config.ConfigDataResourceNotFoundException;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Boots from the local snapshot of the environment when there is one and revalidates it against
+// config-server in the background, so startup never waits on config-server. A changed environment
+// is written to the snapshot and takes effect on the next start, as with a configserver: import,
+// which also only reads config-server at startup. The snapshot records when config-server last
+// confirmed it; once that is longer ago than config.snapshot.max-age, config-server is read before
+// startup continues, as it is without a snapshot, and the old snapshot is only used when that read
+// fails. Without any snapshot a failed read counts as not found, which optional: allows. The time
+// is published as config.snapshot.confirmed-at, and config.snapshot.age reports how long ago the
+// configuration in use was last confirmed. The snapshot keeps the environment exactly as
+// config-server sent it, and a 304 only extends the confirmation while those bytes still hash to
+// the stored ETag; the file itself is only read when StateFiles trusts it.
+public class ConfigSnapshotLoader implements ConfigDataLoader<ConfigSnapshotResource> {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> SOURCE = new TypeReference<>() {};
+
+    private final Log log;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong confirmedAt = new AtomicLong();
+    private HttpClient client;
+
+    public ConfigSnapshotLoader(DeferredLogFactory logFactory) {
+        this.log = logFactory.getLog(ConfigSnapshotLoader.class);
+    }
+
+    @Override
+    public ConfigData load(ConfigDataLoaderContext context, ConfigSnapshotResource resource) {
+        Snapshot snapshot = readSnapshot(resource);
+        if (snapshot != null) {
+            Duration age = snapshot.age();
+            if (age.compareTo(resource.getMaxAge()) <= 0) {
+                log.info("Loaded configuration for " + resource.getApplication() + " from snapshot "
+                        + resource.getSnapshotPath() + ", confirmed " + age.toSeconds() + "s ago, revalidating "
+                        + snapshot.etag() + " in the background");
+                Thread revalidation = new Thread(() -> revalidate(resource, snapshot), "config-snapshot-revalidate");
+                revalidation.setDaemon(true);
+                revalidation.start();
+                return configData(snapshot);
+            }
+            log.warn("Configuration snapshot " + resource.getSnapshotPath() + " was confirmed " + age.toSeconds()
+                    + "s ago, longer than config.snapshot.max-age of " + resource.getMaxAge().toSeconds()
+                    + "s, reading " + resource.environmentUrl() + " first");
+        }
+
+        try {
+            Snapshot fetched = fetch(resource, null);
+            writeSnapshot(resource, fetched);
+            log.info("Loaded configuration for " + resource.getApplication() + " from " + resource.environmentUrl());
+            return configData(fetched);
+        } catch (IOException e) {
+            return stale(resource, snapshot, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return stale(resource, snapshot, e);
+        }
+    }
+
+    // An old snapshot still beats starting without the service's configuration
+    private ConfigData stale(ConfigSnapshotResource resource, Snapshot snapshot, Exception cause) {
+        if (snapshot == null) {
+            throw new ConfigDataResourceNotFoundException(resource, cause);
+        }
+        log.warn("Cannot read " + resource.environmentUrl() + ", starting from configuration snapshot "
+                + resource.getSnapshotPath() + " confirmed " + snapshot.age().toSeconds() + "s ago: " + cause);
+        return configData(snapshot);
+    }
+
+    private void revalidate(ConfigSnapshotResource resource, Snapshot snapshot) {
+        try {
+            // A snapshot that does not match its ETag is read again in full rather than confirmed
+            Snapshot fetched = fetch(resource, snapshot.matchesEtag() ? snapshot.etag() : null);
+            if (fetched == null) {
+                Instant now = Instant.now();
+                confirmedAt.set(now.toEpochMilli());
+                writeSnapshot(resource, new Snapshot(snapshot.etag(), snapshot.json(), snapshot.environment(), now));
+                log.debug("Configuration snapshot " + resource.getSnapshotPath() + " is current");
+                return;
+            }
+            writeSnapshot(resource, fetched);
+            if (fetched.etag().equals(snapshot.etag())) {
+                log.warn("Configuration snapshot " + resource.getSnapshotPath() + " did not match its ETag "
+                        + snapshot.etag() + " and was replaced, it applies from the next start");
+                return;
+            }
+            log.warn("Configuration for " + resource.getApplication() + " changed on config-server ("
+                    + snapshot.etag() + " -> " + fetched.etag() + "), it applies from the next start");
+        } catch (IOException e) {
+            log.warn("Cannot revalidate configuration snapshot " + resource.getSnapshotPath() + ": " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Returns null when config-server answers 304 to the given ETag
+    private Snapshot fetch(ConfigSnapshotResource resource, String etag) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(resource.environmentUrl()))
+                .timeout(resource.getTimeout())
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip");
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        HttpResponse<byte[]> response = client(resource).send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 304 && etag != null) {
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + resource.environmentUrl());
+        }
+        InputStream body = new ByteArrayInputStream(response.body());
+        if (response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent()) {
+            body = new GZIPInputStream(body);
+        }
+        byte[] json = body.readAllBytes();
+        return new Snapshot(response.headers().firstValue("ETag").orElse(""), json, objectMapper.readTree(json),
+                Instant.now());
+    }
+
+    // One client for the startup read and the revalidation; the timeout is the same for both
+    private synchronized HttpClient client(ConfigSnapshotResource resource) {
+        if (client == null) {
+            client = HttpClient.newBuilder()
+                    .connectTimeout(resource.getTimeout())
+                    .build();
+        }
+        return client;
+    }
+
+    private Snapshot readSnapshot(ConfigSnapshotResource resource) {
+        Path path = resource.getSnapshotPath();
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            StateFiles.checkTrusted(path);
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+                JsonNode node = objectMapper.readTree(in);
+                // Snapshots written before the time was recorded fall back to the file's modification time
+                Instant confirmedAt = node.has("confirmedAt")
+                        ? Instant.ofEpochMilli(node.path("confirmedAt").asLong())
+                        : Files.getLastModifiedTime(path).toInstant();
+                // Older snapshots hold the parsed environment, which never matches the ETag
+                byte[] json = node.has("json")
+                        ? node.path("json").asText().getBytes(StandardCharsets.UTF_8)
+                        : objectMapper.writeValueAsBytes(node.path("environment"));
+                return new Snapshot(node.path("etag").asText(), json, objectMapper.readTree(json), confirmedAt);
+            }
+        } catch (IOException e) {
+            log.warn("Cannot read configuration snapshot " + path + ": " + e);
+            return null;
+        }
+    }
+
+    private void writeSnapshot(ConfigSnapshotResource resource, Snapshot snapshot) {
+        Path path = resource.getSnapshotPath();
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("etag", snapshot.etag());
+        node.put("confirmedAt", snapshot.confirmedAt().toEpochMilli());
+        node.put("json", new String(snapshot.json(), StandardCharsets.UTF_8));
+        try {
+            StateFiles.write(path, out -> {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    objectMapper.writeValue(gzip, node);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Cannot write configuration snapshot " + path + ": " + e);
+        }
+    }
+
+    // config-server lists sources highest precedence first, ConfigData takes them lowest first
+    private ConfigData configData(Snapshot snapshot) {
+        // The global registry passes the gauge on to the application's registry once that exists
+        if (confirmedAt.getAndSet(snapshot.confirmedAt().toEpochMilli()) == 0) {
+            Gauge.builder("config.snapshot.age", confirmedAt,
+                            time -> (System.currentTimeMillis() - time.get()) / 1000.0)
+                    .description("Time since config-server last confirmed the configuration in use")
+                    .baseUnit("seconds")
+                    .strongReference(true)
+                    .register(Metrics.globalRegistry);
+        }
+        List<PropertySource<?>> propertySources = new ArrayList<>();
+        propertySources.add(new MapPropertySource("configsnapshot:snapshot",
+                Map.of("config.snapshot.confirmed-at", snapshot.confirmedAt().toString())));
+        for (JsonNode source : snapshot.environment().path("propertySources")) {
+            Map<String, Object> properties = objectMapper.convertValue(source.path("source"), SOURCE);
+            propertySources.add(1, new MapPropertySource("configsnapshot:" + source.path("name").asText(), properties));
+        }
+        return new ConfigData(propertySources);
+    }
+
+    // json is the environment as config-server sent it, environment the same parsed; confirmedAt
+    // is when config-server last served or confirmed it
+    private record Snapshot(String etag, byte[] json, JsonNode environment, Instant confirmedAt) {
+
+        Duration age() {
+            return Duration.between(confirmedAt, Instant.now());
+        }
+
+        // config-server's ETag, see EnvironmentCache: the first 16 bytes of the body's SHA-256, quoted
+        boolean matchesEtag() {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+                return etag.equals("\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
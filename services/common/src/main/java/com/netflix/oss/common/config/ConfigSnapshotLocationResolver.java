@@ -0,0 +1,55 @@
+package com.netflix.oss.common.config;
+
+import org.springframework.boot.context.config.ConfigDataLocation;
+import org.springframework.boot.context.config.ConfigDataLocationResolver;
+import org.springframework.boot.context.config.ConfigDataLocationResolverContext;
+import org.springframework.boot.context.config.Profiles;
+import org.springframework.boot.context.properties.bind.Binder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+// Resolves spring.config.import=configsnapshot:http://host:port to this application's environment
+// on config-server. The snapshot file is per application and profiles, in /opt/<application>/state
+// unless config.snapshot.path names one, and is only trusted for a fast start while it was confirmed
+// by config-server within config.snapshot.max-age. The directory must be one only the service user
+// can write, see StateFiles. spring.cloud.config.enabled=false turns the import off,
+// as it does for configserver: imports.
+public class ConfigSnapshotLocationResolver implements ConfigDataLocationResolver<ConfigSnapshotResource> {
+
+    public static final String PREFIX = "configsnapshot:";
+
+    @Override
+    public boolean isResolvable(ConfigDataLocationResolverContext context, ConfigDataLocation location) {
+        return location.hasPrefix(PREFIX);
+    }
+
+    // Resolved once the profiles are known, since the environment depends on them
+    @Override
+    public List<ConfigSnapshotResource> resolve(ConfigDataLocationResolverContext context, ConfigDataLocation location) {
+        return List.of();
+    }
+
+    @Override
+    public List<ConfigSnapshotResource> resolveProfileSpecific(ConfigDataLocationResolverContext context,
+                                                               ConfigDataLocation location, Profiles profiles) {
+        Binder binder = context.getBinder();
+        if (!binder.bind("spring.cloud.config.enabled", Boolean.class).orElse(true)) {
+            return List.of();
+        }
+        String uri = location.getNonPrefixedValue(PREFIX);
+        if (uri.endsWith("/")) {
+            uri = uri.substring(0, uri.length() - 1);
+        }
+        String application = binder.bind("spring.application.name", String.class).orElse("application");
+        String profileList = profiles.getAccepted().isEmpty() ? "default" : String.join(",", profiles.getAccepted());
+        Path snapshotPath = binder.bind("config.snapshot.path", String.class)
+                .map(Path::of)
+                .orElseGet(() -> Path.of("/opt", application, "state",
+                        application + "-" + profileList.replace(',', '_') + "-config.json.gz"));
+        Duration timeout = binder.bind("config.snapshot.timeout", Duration.class).orElse(Duration.ofSeconds(5));
+        Duration maxAge = binder.bind("config.snapshot.max-age", Duration.class).orElse(Duration.ofHours(24));
+        return List.of(new ConfigSnapshotResource(uri, application, profileList, snapshotPath, timeout, maxAge));
+    }
+}
@@ -0,0 +1,67 @@
+package com.netflix.oss.common.config;
+
+import org.springframework.boot.context.config.ConfigDataResource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+// One application's environment on config-server, and the local file it is kept in
+public class ConfigSnapshotResource extends ConfigDataResource {
+
+    private final String uri;
+    private final String application;
+    private final String profiles;
+    private final Path snapshotPath;
+    private final Duration timeout;
+    private final Duration maxAge;
+
+    public ConfigSnapshotResource(String uri, String application, String profiles, Path snapshotPath,
+                                  Duration timeout, Duration maxAge) {
+        this.uri = uri;
+        this.application = application;
+        this.profiles = profiles;
+        this.snapshotPath = snapshotPath;
+        this.timeout = timeout;
+        this.maxAge = maxAge;
+    }
+
+    public String environmentUrl() {
+        return uri + "/" + application + "/" + profiles;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public Path getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ConfigSnapshotResource resource
+                && uri.equals(resource.uri)
+                && application.equals(resource.application)
+                && profiles.equals(resource.profiles)
+                && snapshotPath.equals(resource.snapshotPath);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(uri, application, profiles, snapshotPath);
+    }
+
+    @Override
+    public String toString() {
+        return environmentUrl() + " (snapshot " + snapshotPath + ")";
+    }
+}
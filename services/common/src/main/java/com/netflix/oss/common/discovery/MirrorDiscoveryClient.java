@@ -0,0 +1,37 @@
+package com.netflix.oss.common.discovery;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.util.List;
+
+// Serves lookups from the RegistryMirror. Ordered ahead of Eureka's client (order 0); the
+// composite client falls through to Eureka for services the mirror has no current instances of.
+public class MirrorDiscoveryClient implements DiscoveryClient {
+
+    private final RegistryMirror mirror;
+
+    public MirrorDiscoveryClient(RegistryMirror mirror) {
+        this.mirror = mirror;
+    }
+
+    @Override
+    public String description() {
+        return "Eureka registry mirror";
+    }
+
+    @Override
+    public List<ServiceInstance> getInstances(String serviceId) {
+        return mirror.instances(serviceId);
+    }
+
+    @Override
+    public List<String> getServices() {
+        return mirror.services();
+    }
+
+    @Override
+    public int getOrder() {
+        return -1;
+    }
+}
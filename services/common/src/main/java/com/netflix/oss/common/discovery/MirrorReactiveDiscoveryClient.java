@@ -0,0 +1,35 @@
+package com.netflix.oss.common.discovery;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import reactor.core.publisher.Flux;
+
+// Reactive counterpart of MirrorDiscoveryClient, for the gateway's load balancer
+public class MirrorReactiveDiscoveryClient implements ReactiveDiscoveryClient {
+
+    private final RegistryMirror mirror;
+
+    public MirrorReactiveDiscoveryClient(RegistryMirror mirror) {
+        this.mirror = mirror;
+    }
+
+    @Override
+    public String description() {
+        return "Eureka registry mirror";
+    }
+
+    @Override
+    public Flux<ServiceInstance> getInstances(String serviceId) {
+        return Flux.defer(() -> Flux.fromIterable(mirror.instances(serviceId)));
+    }
+
+    @Override
+    public Flux<String> getServices() {
+        return Flux.defer(() -> Flux.fromIterable(mirror.services()));
+    }
+
+    @Override
+    public int getOrder() {
+        return -1;
+    }
+}
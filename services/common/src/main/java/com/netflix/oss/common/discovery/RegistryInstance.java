@@ -0,0 +1,26 @@
+package com.netflix.oss.common.discovery;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Map;
+
+// One UP instance as carried on the registry stream and in registry snapshots. Cancellations
+// only carry serviceId and instanceId. Service ids are lower case, as Spring Cloud uses them.
+public record RegistryInstance(
+        String serviceId,
+        String instanceId,
+        String host,
+        int port,
+        boolean secure,
+        Map<String, String> metadata) {
+
+    public static RegistryInstance cancelled(String serviceId, String instanceId) {
+        return new RegistryInstance(serviceId, instanceId, null, 0, false, Map.of());
+    }
+
+    public ServiceInstance toServiceInstance() {
+        return new DefaultServiceInstance(instanceId, serviceId, host, port, secure,
+                metadata == null ? Map.of() : metadata);
+    }
+}
@@ -0,0 +1,284 @@
+package com.netflix.oss.common.discovery;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.netflix.oss.common.state.StateFiles;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Local copy of the Eureka registry, kept current by eureka-server's registry stream instead of
+// the client's 30s poll, so registrations and evictions reach this service within moments.
+// Every change is written to a CBOR snapshot file, and the snapshot is loaded at startup, so
+// lookups work before Eureka has been reached. A snapshot older than max-age, or one StateFiles
+// does not trust, is ignored, and
+// when the stream has been down for longer than max-age the mirror answers nothing, so the
+// composite discovery client falls back to Eureka's own registry.
+public class RegistryMirror implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistryMirror.class);
+
+    private static final TypeReference<List<RegistryInstance>> INSTANCE_LIST = new TypeReference<>() {};
+
+    private final URL streamUrl;
+    private final Path snapshotPath;
+    private final long maxAgeMillis;
+    private final int readTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new CBORMapper();
+    private final Map<String, Counter> events;
+    private final Thread streamThread;
+
+    private volatile State state = State.EMPTY;
+    private volatile HttpURLConnection connection;
+    private volatile boolean closed;
+
+    public RegistryMirror(URL streamUrl, Path snapshotPath, Duration maxAge, Duration readTimeout,
+                          Duration reconnectDelay, MeterRegistry meterRegistry) {
+        this.streamUrl = streamUrl;
+        this.snapshotPath = snapshotPath;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.readTimeoutMillis = (int) readTimeout.toMillis();
+        this.reconnectDelayMillis = reconnectDelay.toMillis();
+        this.events = Map.of(
+                RegistryStream.SNAPSHOT, eventCounter(meterRegistry, RegistryStream.SNAPSHOT),
+                RegistryStream.REGISTER, eventCounter(meterRegistry, RegistryStream.REGISTER),
+                RegistryStream.CANCEL, eventCounter(meterRegistry, RegistryStream.CANCEL));
+        Gauge.builder("registry.mirror.connected", this, mirror -> mirror.state.connected() ? 1 : 0)
+                .description("Whether the registry stream from eureka-server is connected")
+                .register(meterRegistry);
+        Gauge.builder("registry.mirror.instances", this, mirror -> mirror.state.size())
+                .description("Instances currently in the registry mirror")
+                .register(meterRegistry);
+
+        loadSnapshot();
+
+        this.streamThread = new Thread(this::run, "registry-mirror");
+        streamThread.setDaemon(true);
+        streamThread.start();
+    }
+
+    public List<ServiceInstance> instances(String serviceId) {
+        State current = state;
+        if (!current.isFresh(maxAgeMillis)) {
+            return List.of();
+        }
+        return current.lookups().getOrDefault(serviceId.toLowerCase(Locale.ROOT), List.of());
+    }
+
+    public List<String> services() {
+        State current = state;
+        if (!current.isFresh(maxAgeMillis)) {
+            return List.of();
+        }
+        return List.copyOf(current.lookups().keySet());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        streamThread.interrupt();
+        HttpURLConnection current = connection;
+        if (current != null) {
+            current.disconnect();
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                consume();
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.warn("Registry stream from {} failed: {}", streamUrl, e.toString());
+                }
+            }
+            State current = state;
+            if (current.connected()) {
+                state = new State(current.instances(), current.lookups(), false, System.currentTimeMillis());
+            }
+            try {
+                Thread.sleep(reconnectDelayMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Reads server-sent events until the stream ends. The server resyncs well within the read
+    // timeout, so a silent connection is treated as lost.
+    private void consume() throws IOException {
+        HttpURLConnection current = (HttpURLConnection) streamUrl.openConnection();
+        current.setConnectTimeout(readTimeoutMillis);
+        current.setReadTimeout(readTimeoutMillis);
+        current.setRequestProperty("Accept", "text/event-stream");
+        connection = current;
+        try {
+            if (current.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + current.getResponseCode());
+            }
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(current.getInputStream(), StandardCharsets.UTF_8))) {
+                String event = null;
+                StringBuilder data = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (event != null && !data.isEmpty()) {
+                            apply(event, data.toString());
+                        }
+                        event = null;
+                        data.setLength(0);
+                    } else if (line.startsWith("event:")) {
+                        event = line.substring(6).strip();
+                    } else if (line.startsWith("data:")) {
+                        if (!data.isEmpty()) {
+                            data.append('\n');
+                        }
+                        data.append(line.substring(line.startsWith("data: ") ? 6 : 5));
+                    }
+                }
+            }
+        } finally {
+            current.disconnect();
+            connection = null;
+        }
+    }
+
+    private void apply(String event, String data) throws IOException {
+        State current = state;
+        Map<String, Map<String, RegistryInstance>> instances;
+        switch (event) {
+            case RegistryStream.SNAPSHOT -> {
+                instances = new HashMap<>();
+                for (RegistryInstance instance : json.readValue(data, INSTANCE_LIST)) {
+                    instances.computeIfAbsent(instance.serviceId(), id -> new LinkedHashMap<>())
+                            .put(instance.instanceId(), instance);
+                }
+                if (!current.connected()) {
+                    logger.info("Registry stream connected to {}", streamUrl);
+                }
+            }
+            case RegistryStream.REGISTER -> {
+                RegistryInstance instance = json.readValue(data, RegistryInstance.class);
+                instances = copy(current.instances());
+                instances.computeIfAbsent(instance.serviceId(), id -> new LinkedHashMap<>())
+                        .put(instance.instanceId(), instance);
+            }
+            case RegistryStream.CANCEL -> {
+                RegistryInstance instance = json.readValue(data, RegistryInstance.class);
+                instances = copy(current.instances());
+                Map<String, RegistryInstance> service = instances.get(instance.serviceId());
+                if (service != null) {
+                    service.remove(instance.instanceId());
+                    if (service.isEmpty()) {
+                        instances.remove(instance.serviceId());
+                    }
+                }
+            }
+            default -> {
+                return;
+            }
+        }
+        events.get(event).increment();
+
+        boolean changed = !instances.equals(current.instances());
+        state = State.of(changed ? instances : current.instances(), true, System.currentTimeMillis());
+        if (changed) {
+            logger.info("Registry mirror updated by {}: {} instances", event, state.size());
+            writeSnapshot();
+        }
+    }
+
+    private void loadSnapshot() {
+        try {
+            if (!Files.exists(snapshotPath)) {
+                return;
+            }
+            StateFiles.checkTrusted(snapshotPath);
+            long modified = Files.getLastModifiedTime(snapshotPath).toMillis();
+            if (System.currentTimeMillis() - modified > maxAgeMillis) {
+                logger.info("Ignoring registry snapshot {}, older than {} ms", snapshotPath, maxAgeMillis);
+                return;
+            }
+            Map<String, Map<String, RegistryInstance>> instances = new HashMap<>();
+            for (RegistryInstance instance : cbor.readValue(snapshotPath.toFile(), INSTANCE_LIST)) {
+                instances.computeIfAbsent(instance.serviceId(), id -> new LinkedHashMap<>())
+                        .put(instance.instanceId(), instance);
+            }
+            state = State.of(instances, false, modified);
+            logger.info("Loaded {} instances from registry snapshot {}", state.size(), snapshotPath);
+        } catch (IOException e) {
+            logger.warn("Cannot read registry snapshot {}: {}", snapshotPath, e.toString());
+        }
+    }
+
+    private void writeSnapshot() {
+        List<RegistryInstance> instances = new ArrayList<>();
+        state.instances().values().forEach(service -> instances.addAll(service.values()));
+        try {
+            byte[] content = cbor.writeValueAsBytes(instances);
+            StateFiles.write(snapshotPath, out -> out.write(content));
+        } catch (IOException e) {
+            logger.warn("Cannot write registry snapshot {}: {}", snapshotPath, e.toString());
+        }
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String event) {
+        return Counter.builder("registry.mirror.events")
+                .description("Events received on the registry stream")
+                .tag("type", event)
+                .register(meterRegistry);
+    }
+
+    private static Map<String, Map<String, RegistryInstance>> copy(Map<String, Map<String, RegistryInstance>> instances) {
+        Map<String, Map<String, RegistryInstance>> copy = new HashMap<>();
+        instances.forEach((serviceId, service) -> copy.put(serviceId, new LinkedHashMap<>(service)));
+        return copy;
+    }
+
+    private record State(
+            Map<String, Map<String, RegistryInstance>> instances,
+            Map<String, List<ServiceInstance>> lookups,
+            boolean connected,
+            long updatedAt) {
+
+        static final State EMPTY = new State(Map.of(), Map.of(), false, 0);
+
+        static State of(Map<String, Map<String, RegistryInstance>> instances, boolean connected, long updatedAt) {
+            Map<String, List<ServiceInstance>> lookups = new HashMap<>();
+            instances.forEach((serviceId, service) -> lookups.put(serviceId,
+                    service.values().stream().map(RegistryInstance::toServiceInstance).toList()));
+            return new State(instances, Map.copyOf(lookups), connected, updatedAt);
+        }
+
+        boolean isFresh(long maxAgeMillis) {
+            return connected || System.currentTimeMillis() - updatedAt <= maxAgeMillis;
+        }
+
+        int size() {
+            return instances.values().stream().mapToInt(Map::size).sum();
+        }
+    }
+}
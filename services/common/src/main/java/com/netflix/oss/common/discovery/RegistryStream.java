@@ -0,0 +1,17 @@
+package com.netflix.oss.common.discovery;
+
+// The server-sent event stream eureka-server publishes registry changes on. A subscriber gets a
+// snapshot of all UP instances when it connects and again every resync interval, and register
+// and cancel events in between. Every event's data is JSON: a list of RegistryInstance for
+// snapshots, one RegistryInstance otherwise.
+public final class RegistryStream {
+
+    public static final String PATH = "/registry/stream";
+
+    public static final String SNAPSHOT = "snapshot";
+    public static final String REGISTER = "register";
+    public static final String CANCEL = "cancel";
+
+    private RegistryStream() {
+    }
+}
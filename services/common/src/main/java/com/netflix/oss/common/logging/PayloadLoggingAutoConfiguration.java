@@ -0,0 +1,19 @@
+package com.netflix.oss.common.logging;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+// PayloadSampler for every service that has common on its classpath, bound from
+// logging.payload.*; the routes are named in each service's yml. A service can declare its own
+// PayloadSampler bean to replace it.
+@AutoConfiguration
+public class PayloadLoggingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PayloadSampler payloadSampler(Environment environment) {
+        return PayloadSampler.bind(environment);
+    }
+}
@@ -0,0 +1,68 @@
+package com.netflix.oss.common.logging;
+
+import com.netflix.oss.common.request.RequestId;
+import org.slf4j.Logger;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Decides which requests have their payloads logged. Formatting a payload costs more than the
+// rest of the request's log lines together, so only a share of the requests on each route logs
+// it: logging.payload.sample-rate for every route, logging.payload.sample-rates.<route> to
+// override one; 0 logs none, 1 logs all. The decision is taken from the request ID where there is
+// one, so with equal rates the same requests are logged at every hop.
+public class PayloadSampler {
+
+    private final double defaultRate;
+    private final Map<String, Double> rates;
+
+    public PayloadSampler(double defaultRate, Map<String, Double> rates) {
+        this.defaultRate = defaultRate;
+        this.rates = Map.copyOf(rates);
+    }
+
+    // Rates from logging.payload.*, by default one request in a hundred on every route
+    public static PayloadSampler bind(Environment environment) {
+        Binder binder = Binder.get(environment);
+        return new PayloadSampler(
+                binder.bind("logging.payload.sample-rate", Double.class).orElse(0.01),
+                binder.bind("logging.payload.sample-rates", Bindable.mapOf(String.class, Double.class)).orElse(Map.of()));
+    }
+
+    // INFO line for a payload of the route. For requests that are not sampled, and when INFO is
+    // off for the logger, it is a no-op and none of the arguments are formatted.
+    public LoggingEventBuilder atInfo(Logger logger, String route) {
+        if (!logger.isInfoEnabled() || !sample(route)) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        return logger.atInfo();
+    }
+
+    public boolean sample(String route) {
+        double rate = rates.getOrDefault(route, defaultRate);
+        if (rate >= 1) {
+            return true;
+        }
+        if (rate <= 0) {
+            return false;
+        }
+        String requestId = RequestId.current();
+        return (requestId != null ? fraction(requestId) : ThreadLocalRandom.current().nextDouble()) < rate;
+    }
+
+    // Spreads the ID's hash over [0, 1); the hash of a time-ordered ID alone is not uniform
+    private static double fraction(String requestId) {
+        int hash = requestId.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (hash >>> 8) / (double) (1 << 24);
+    }
+}
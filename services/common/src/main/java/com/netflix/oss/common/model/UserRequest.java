@@ -0,0 +1,20 @@
+package com.netflix.oss.common.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Request sent from user-bff through middleware to backend
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserRequest(
+        String operation,
+        String userId,
+        String name,
+        String source) {
+
+    public static UserRequest forUser(String operation, String userId, String source) {
+        return new UserRequest(operation, userId, null, source);
+    }
+
+    public static UserRequest forName(String operation, String name, String source) {
+        return new UserRequest(operation, null, name, source);
+    }
+}
@@ -0,0 +1,52 @@
+package com.netflix.oss.common.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Response produced by backend, annotated by middleware with the mTLS result and returned to user-bff.
+// Unset fields are left out of the encoded form, so each hop only carries what it filled in.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserResponse(
+        String servedBy,
+        String backendVersion,
+        String processedAt,
+        String requestId,
+        UserRequest inputPayload,
+        String status,
+        String operationProcessed,
+        Boolean userVerified,
+        String userId,
+        String greeting,
+        Boolean mtlsVerified,
+        String clientCN,
+        Boolean middlewareProcessed,
+        String error,
+        String backendError) {
+
+    // Error raised by user-bff when middleware could not be reached
+    public static UserResponse error(String message) {
+        return new UserResponse("error", null, null, null, null, null, null, null, null, null,
+                false, null, null, message, null);
+    }
+
+    // Error raised by middleware when backend could not be reached
+    public static UserResponse backendError(String message) {
+        return new UserResponse("middleware-fallback", null, null, null, null, null, null, null, null, null,
+                null, null, null, null, message);
+    }
+
+    // Either hop reported a failure; these still travel as 200 and must not be cached
+    public boolean failed() {
+        return error != null || backendError != null;
+    }
+
+    public UserResponse withMtls(boolean mtlsVerified, String clientCN) {
+        return new UserResponse(servedBy, backendVersion, processedAt, requestId, inputPayload, status,
+                operationProcessed, userVerified, userId, greeting, mtlsVerified, clientCN, true, error, backendError);
+    }
+
+    public UserResponse withGreeting(String greeting) {
+        return new UserResponse(servedBy, backendVersion, processedAt, requestId, inputPayload, status,
+                operationProcessed, userVerified, userId, greeting, mtlsVerified, clientCN, middlewareProcessed,
+                error, backendError);
+    }
+}
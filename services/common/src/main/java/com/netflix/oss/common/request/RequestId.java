@@ -0,0 +1,77 @@
+package com.netflix.oss.common.request;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Correlation ID of one client request. cloud-gateway assigns it and every hop passes it on in the
+// X-Request-Id header and logs it under the requestId MDC key, so the lines one request left in
+// each service can be found together.
+//
+// IDs are 128 bits: a 48-bit millisecond timestamp and a 16-bit sequence, then 64 random bits,
+// written as 26 characters of Crockford base32, e.g. 01HF3Q2Z8C0007KX9M4T6WBN2R. They sort by
+// creation time, and generating one takes no lock: the sequence is per thread and the random bits
+// come from ThreadLocalRandom. UUID.randomUUID() draws from one SecureRandom shared by all threads.
+// The random half only has to keep IDs apart, they are not secrets.
+public final class RequestId {
+
+    public static final String HEADER = "X-Request-Id";
+
+    // Key in the MDC, and in the Reactor context of the reactive services
+    public static final String MDC_KEY = "requestId";
+
+    static final String ATTRIBUTE = RequestId.class.getName();
+
+    private static final int MAX_LENGTH = 64;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    // Timestamp and sequence of the last ID made on this thread
+    private static final ThreadLocal<long[]> LAST = ThreadLocal.withInitial(() -> new long[1]);
+
+    private RequestId() {
+    }
+
+    public static String next() {
+        long[] last = LAST.get();
+        // The sequence counts IDs within the millisecond; past 65536 the timestamp runs ahead of
+        // the clock until the clock catches up, so a thread's IDs never repeat or go backwards
+        long high = Math.max(System.currentTimeMillis() << 16, last[0] + 1);
+        last[0] = high;
+        return encode(high, ThreadLocalRandom.current().nextLong());
+    }
+
+    // ID of the request handled on this thread, or null outside a request. Async callers capture
+    // it before handing off, as they do ServerTiming.
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+
+    // Whether an ID received from a caller can be kept. Anything else is replaced, so a client
+    // cannot put arbitrary text into the logs of every hop.
+    public static boolean isValid(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean allowed = (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')
+                    || c == '-' || c == '_' || c == '.' || c == ':';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Five bits per character from the least significant end. 26 characters hold 130 bits, two more
+    // than the ID's 128: the last 25 carry 125 bits, so the first carries the top three (value 0-7)
+    private static String encode(long high, long low) {
+        char[] chars = new char[26];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (low & 31)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,31 @@
+package com.netflix.oss.common.request;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import org.slf4j.MDC;
+
+// Carries the request ID between the MDC and the Reactor context, so log lines written from
+// Reactor operators, on whatever thread they run, still carry the ID. Reactor applies it when
+// spring.reactor.context-propagation=auto; Spring for GraphQL applies it to data fetchers.
+// Registered through META-INF/services.
+public class RequestIdAccessor implements ThreadLocalAccessor<String> {
+
+    @Override
+    public Object key() {
+        return RequestId.MDC_KEY;
+    }
+
+    @Override
+    public String getValue() {
+        return MDC.get(RequestId.MDC_KEY);
+    }
+
+    @Override
+    public void setValue(String value) {
+        MDC.put(RequestId.MDC_KEY, value);
+    }
+
+    @Override
+    public void setValue() {
+        MDC.remove(RequestId.MDC_KEY);
+    }
+}
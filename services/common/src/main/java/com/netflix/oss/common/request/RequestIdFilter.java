@@ -0,0 +1,43 @@
+package com.netflix.oss.common.request;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+
+// Takes the request ID from the X-Request-Id header, or makes one when the caller sent none, puts
+// it in the MDC for the duration of the request and returns it in the response header. Register
+// it first in the chain and for REQUEST and ASYNC dispatches; an async dispatch keeps the ID of
+// the dispatch that started it.
+public class RequestIdFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest httpRequest) || !(response instanceof HttpServletResponse httpResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String id = (String) httpRequest.getAttribute(RequestId.ATTRIBUTE);
+        if (id == null) {
+            String received = httpRequest.getHeader(RequestId.HEADER);
+            id = RequestId.isValid(received) ? received : RequestId.next();
+            httpRequest.setAttribute(RequestId.ATTRIBUTE, id);
+            httpResponse.setHeader(RequestId.HEADER, id);
+        }
+
+        MDC.put(RequestId.MDC_KEY, id);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(RequestId.MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.netflix.oss.common.state;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+// Files a service keeps between starts (config and registry snapshots) and trusts at startup,
+// before anything else has been checked. They belong in a directory only the service user can
+// write, /opt/<service>/state on the VMs. A file is only read when it is a regular file owned by
+// the user the process runs as and not writable by group or others, so a file planted by someone
+// else is never taken for the service's own. Writes go to a fresh temp file beside the target,
+// which never follows a link someone else created, and are moved into place.
+public final class StateFiles {
+
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    private StateFiles() {
+    }
+
+    // Throws when the file must not be trusted; the message says why
+    public static void checkTrusted(Path file) throws IOException {
+        if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException(file + " is not a regular file");
+        }
+        String owner = Files.getOwner(file, LinkOption.NOFOLLOW_LINKS).getName();
+        String user = System.getProperty("user.name");
+        if (!owner.equals(user)) {
+            throw new IOException(file + " is owned by " + owner + ", not " + user);
+        }
+        if (POSIX) {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(file, LinkOption.NOFOLLOW_LINKS);
+            if (permissions.contains(PosixFilePermission.GROUP_WRITE)
+                    || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+                throw new IOException(file + " is writable by group or others ("
+                        + PosixFilePermissions.toString(permissions) + ")");
+            }
+        }
+    }
+
+    // Creates a missing directory for the user alone, then replaces the file in one move, so a
+    // crash never leaves a partial file and instances sharing the file never read one
+    public static void write(Path file, Writer writer) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            if (POSIX) {
+                Files.createDirectories(directory,
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(directory);
+            }
+        }
+        // Created new with owner-only permissions; an existing name is never reused
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Writer {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,71 @@
+package com.netflix.oss.common.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Server-Timing entries of one request on its way down the chain. Each hop reports its own time
+// and the time of its outbound call, and appends whatever the downstream hop reported, so the
+// response that reaches the client reads like
+//   user-bff;dur=41.2, user-bff.middleware;dur=38.0, middleware;dur=30.5, middleware.backend;dur=21.7, backend;dur=3.1
+// The gap between a call and the hop it called is network, TLS handshake and queueing.
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    static final String ATTRIBUTE = ServerTiming.class.getName();
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final String hop;
+    private final long startNanos = System.nanoTime();
+    private final List<String> entries = new ArrayList<>();
+    private boolean written;
+
+    ServerTiming(String hop) {
+        this.hop = hop;
+    }
+
+    // Timing of the request handled on this thread, or null outside a request. Async callers
+    // capture it before handing off, callbacks run on other threads.
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    public synchronized void add(String name, long nanos) {
+        entries.add(entry(name, nanos));
+    }
+
+    // Server-Timing header value of a downstream response, may be null
+    public synchronized void addDownstream(String headerValue) {
+        if (headerValue != null && !headerValue.isBlank()) {
+            entries.add(headerValue);
+        }
+    }
+
+    // name;dur=<milliseconds with one decimal>
+    public static String entry(String name, long nanos) {
+        long tenths = nanos / 100_000;
+        return name + ";dur=" + tenths / 10 + "." + tenths % 10;
+    }
+
+    static void bind(ServerTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    // Header value with this hop's time up to now, or null if it was already taken
+    synchronized String takeHeaderValue() {
+        if (written) {
+            return null;
+        }
+        written = true;
+        StringBuilder value = new StringBuilder(entry(hop, System.nanoTime() - startNanos));
+        for (String entry : entries) {
+            value.append(", ").append(entry);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.netflix.oss.common.timing;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+// Adds this hop's Server-Timing entry, followed by the entries of its downstream calls, to every
+// response. Headers cannot change once the body starts, so the header is written when the
+// handler first touches the response body; the hop's time therefore covers everything up to
+// serialising the response. Register it first in the chain and for REQUEST and ASYNC dispatches,
+// so async handlers are timed until their result is written.
+public class ServerTimingFilter implements Filter {
+
+    private final String hop;
+
+    public ServerTimingFilter(String hop) {
+        this.hop = hop;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest httpRequest) || !(response instanceof HttpServletResponse httpResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = (ServerTiming) httpRequest.getAttribute(ServerTiming.ATTRIBUTE);
+        if (timing == null) {
+            timing = new ServerTiming(hop);
+            httpRequest.setAttribute(ServerTiming.ATTRIBUTE, timing);
+        }
+
+        ServerTiming.bind(timing);
+        try {
+            chain.doFilter(request, httpResponse instanceof TimingResponse
+                    ? httpResponse
+                    : new TimingResponse(httpResponse, timing));
+        } finally {
+            ServerTiming.unbind();
+        }
+
+        // Responses without a body, e.g. 204 or an empty 200
+        if (!httpRequest.isAsyncStarted() && !httpResponse.isCommitted()) {
+            writeHeader(httpResponse, timing);
+        }
+    }
+
+    private static void writeHeader(HttpServletResponse response, ServerTiming timing) {
+        String value = timing.takeHeaderValue();
+        if (value != null) {
+            response.setHeader(ServerTiming.HEADER, value);
+        }
+    }
+
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final ServerTiming timing;
+
+        TimingResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader((HttpServletResponse) getResponse(), timing);
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader((HttpServletResponse) getResponse(), timing);
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader((HttpServletResponse) getResponse(), timing);
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader((HttpServletResponse) getResponse(), timing);
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader((HttpServletResponse) getResponse(), timing);
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.netflix.oss.common.wire;
+
+// Headers of the forward calls from user-bff to middleware. The response headers report the mTLS
+// result when middleware streams the backend response through unchanged instead of adding the
+// fields to the body.
+public final class ForwardHeaders {
+
+    public static final String MTLS_VERIFIED = "X-Mtls-Verified";
+    public static final String CLIENT_CN = "X-Client-CN";
+    public static final String MIDDLEWARE_PROCESSED = "X-Middleware-Processed";
+
+    // Request header: high, normal (default) or low; middleware sheds low first under overload.
+    // user-bff sets it per channel and call type from middleware.priority.
+    public static final String PRIORITY = "X-Request-Priority";
+
+    private ForwardHeaders() {
+    }
+}
@@ -0,0 +1,31 @@
+package com.netflix.oss.common.wire;
+
+// Encodings accepted on the internal user-bff -> middleware -> backend hops.
+// Servers negotiate on Content-Type/Accept; JSON stays the fallback for any other client.
+public enum WireFormat {
+
+    JSON("application/json"),
+    CBOR("application/cbor");
+
+    private final String mediaType;
+
+    WireFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    // Accept header preferring this format and falling back to JSON
+    public String accept() {
+        return this == JSON ? JSON.mediaType : mediaType + ", " + JSON.mediaType;
+    }
+
+    public static WireFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.regionMatches(true, 0, CBOR.mediaType, 0, CBOR.mediaType.length())) {
+            return CBOR;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,187 @@
+package com.netflix.oss.configserver.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Compiled environments, so config-server merges the config repository once per application and
+// profile instead of on every request. A burst of identical requests waits on a single compile.
+// Every entry is recompiled on the refresh interval and replaced when its content changed, so an
+// edit to the repository reaches clients within one interval. The ETag is a hash of the content,
+// so it stays the same across restarts and instances of config-server. Only the repository's own
+// applications are cached, and at most max-entries combinations of their profiles and labels; any
+// other request is left to config-server, so made-up paths cannot grow the cache.
+public class EnvironmentCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentCache.class);
+
+    private final EnvironmentController environments;
+    private final ObjectMapper objectMapper;
+    private final Set<String> applications;
+    private final int maxEntries;
+    private final ConcurrentMap<Key, CompletableFuture<Compiled>> compiled = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+    private final Counter compiles;
+
+    public EnvironmentCache(EnvironmentController environments, ObjectMapper objectMapper,
+                            List<String> applications, int maxEntries, Duration refreshInterval,
+                            MeterRegistry meterRegistry) {
+        this.environments = environments;
+        this.objectMapper = objectMapper;
+        this.applications = Set.copyOf(applications);
+        this.maxEntries = maxEntries;
+        this.compiles = Counter.builder("config.environment.compiles")
+                .description("Environments merged from the config repository")
+                .register(meterRegistry);
+        Gauge.builder("config.environment.cached", compiled, ConcurrentMap::size)
+                .description("Compiled environments held by config-server")
+                .register(meterRegistry);
+
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "config-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Known applications are compiled before their first request rather than during it
+        refresher.execute(() -> applications.forEach(application -> warm(new Key(application, "default", null, false))));
+        long intervalMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean contains(Key key) {
+        return compiled.containsKey(key);
+    }
+
+    // Whether the key is served from the cache; the count may overshoot by concurrent misses
+    public boolean accepts(Key key) {
+        return applications.contains(key.application())
+                && (compiled.containsKey(key) || compiled.size() < maxEntries);
+    }
+
+    // Throws whatever the config repository throws for an unknown profile or label, and nothing is
+    // cached in that case. The compile runs outside the map, concurrent misses wait for it.
+    public Compiled get(Key key) {
+        CompletableFuture<Compiled> entry = compiled.get(key);
+        if (entry == null) {
+            CompletableFuture<Compiled> created = new CompletableFuture<>();
+            entry = compiled.putIfAbsent(key, created);
+            if (entry == null) {
+                entry = created;
+                try {
+                    created.complete(compile(key));
+                } catch (RuntimeException e) {
+                    compiled.remove(key, created);
+                    created.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private void warm(Key key) {
+        if (!accepts(key)) {
+            return;
+        }
+        try {
+            get(key);
+        } catch (RuntimeException e) {
+            logger.warn("Cannot compile environment {}: {}", key, e.toString());
+        }
+    }
+
+    private void refresh() {
+        for (Key key : compiled.keySet()) {
+            try {
+                Compiled current = compile(key);
+                CompletableFuture<Compiled> previous = compiled.put(key, CompletableFuture.completedFuture(current));
+                Compiled replaced = previous != null ? previous.getNow(null) : null;
+                if (replaced != null && !replaced.etag().equals(current.etag())) {
+                    logger.info("Environment {} changed, now {}", key, current.etag());
+                }
+            } catch (RuntimeException e) {
+                // Keep serving the last good version
+                logger.warn("Cannot recompile environment {}: {}", key, e.toString());
+            }
+        }
+    }
+
+    private Compiled compile(Key key) {
+        Environment environment = environments.getEnvironment(key.application(), key.profiles(), key.label(),
+                key.includeOrigin());
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(environment);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        compiles.increment();
+        logger.debug("Compiled environment {}: {} bytes", key, json.length);
+        return new Compiled(json, gzip(json), etag(json));
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String etag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // includeOrigin selects the v2 representation, which carries the source file of every value
+    public record Key(String application, String profiles, String label, boolean includeOrigin) {
+
+        @Override
+        public String toString() {
+            return application + "/" + profiles + "/" + Objects.requireNonNullElse(label, "")
+                    + (includeOrigin ? " (v2)" : "");
+        }
+    }
+
+    public record Compiled(byte[] json, byte[] gzip, String etag) {
+    }
+}
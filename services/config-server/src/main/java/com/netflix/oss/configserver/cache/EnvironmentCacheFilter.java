@@ -0,0 +1,121 @@
+package com.netflix.oss.configserver.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.cloud.config.environment.EnvironmentMediaType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Answers environment requests, GET /{application}/{profiles}[/{label}], from EnvironmentCache
+// with an ETag, a 304 when the client already holds that version, and the gzip copy when the
+// client accepts it. Anything else, including file downloads such as /{application}-{profile}.yml
+// every error and every environment the cache does not take, goes on to config-server's own
+// controllers.
+public class EnvironmentCacheFilter extends OncePerRequestFilter {
+
+    // Dots are left to config-server, which uses them for its file and property formats
+    private static final Pattern ENVIRONMENT_PATH = Pattern.compile("/([^/.]+)/([^/.]+)(?:/([^/.]+))?/?");
+
+    private final EnvironmentCache cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+    private final Counter bypasses;
+
+    public EnvironmentCacheFilter(EnvironmentCache cache, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.notModified = requests(meterRegistry, "not_modified");
+        this.bypasses = requests(meterRegistry, "bypass");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Matcher path = ENVIRONMENT_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (!"GET".equals(request.getMethod()) || !path.matches() || "actuator".equals(path.group(1))
+                || !acceptsJson(accept)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean includeOrigin = accept != null && accept.contains(EnvironmentMediaType.V2_JSON);
+        EnvironmentCache.Key key = new EnvironmentCache.Key(path.group(1), path.group(2), path.group(3), includeOrigin);
+        if (!cache.accepts(key)) {
+            bypasses.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean cached = cache.contains(key);
+        EnvironmentCache.Compiled compiled;
+        try {
+            compiled = cache.get(key);
+        } catch (RuntimeException e) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, compiled.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), compiled.etag())) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (cached) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        byte[] body = compiled.json();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = compiled.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(includeOrigin ? EnvironmentMediaType.V2_JSON : MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsJson(String accept) {
+        return accept == null || accept.contains("json") || accept.contains("*/*");
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("config.environment.requests")
+                .description("Environment requests answered from compiled environments")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,74 @@
+package com.netflix.oss.configserver.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.oss.configserver.cache.EnvironmentCache;
+import com.netflix.oss.configserver.cache.EnvironmentCacheFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compiled, ETag-validated environments in front of config-server's EnvironmentController
+@Configuration
+@ConditionalOnProperty(name = "config.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class EnvironmentCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentCacheConfig.class);
+
+    @Bean
+    public EnvironmentCache environmentCache(
+            EnvironmentController environmentController,
+            ObjectMapper objectMapper,
+            ResourcePatternResolver resourcePatternResolver,
+            @Value("${spring.cloud.config.server.native.search-locations:classpath:/config-repo}") List<String> searchLocations,
+            @Value("${config.cache.max-entries:64}") int maxEntries,
+            @Value("${config.cache.refresh-interval:30s}") Duration refreshInterval,
+            MeterRegistry meterRegistry) {
+        return new EnvironmentCache(environmentController, objectMapper,
+                applications(resourcePatternResolver, searchLocations), maxEntries, refreshInterval, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<EnvironmentCacheFilter> environmentCacheFilter(
+            EnvironmentCache environmentCache, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<EnvironmentCacheFilter> registration =
+                new FilterRegistrationBean<>(new EnvironmentCacheFilter(environmentCache, meterRegistry));
+        registration.setDispatcherTypes(DispatcherType.REQUEST);
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+
+    // One per YAML file in the repository; application.yml is shared and not an application
+    private static List<String> applications(ResourcePatternResolver resolver, List<String> searchLocations) {
+        List<String> applications = new ArrayList<>();
+        for (String location : searchLocations) {
+            String base = location.endsWith("/") ? location : location + "/";
+            try {
+                for (Resource resource : resolver.getResources(base + "*.yml")) {
+                    String filename = resource.getFilename();
+                    String application = filename.substring(0, filename.length() - ".yml".length());
+                    if (!application.equals("application") && !applications.contains(application)) {
+                        applications.add(application);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Cannot list config repository {}: {}", location, e.toString());
+            }
+        }
+        return applications;
+    }
+}
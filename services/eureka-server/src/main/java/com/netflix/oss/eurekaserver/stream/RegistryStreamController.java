@@ -0,0 +1,146 @@
+package com.netflix.oss.eurekaserver.stream;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.oss.common.discovery.RegistryInstance;
+import com.netflix.oss.common.discovery.RegistryStream;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Pushes registry changes to RegistryMirror subscribers as they happen, instead of leaving them
+// to the clients' 30s poll of the server's response cache. Evictions arrive as cancellations.
+// All sends run on one thread, so every subscriber sees events in the order they were published,
+// and a slow subscriber delays only the stream, never a registration. The periodic resync also
+// corrects anything a subscriber missed, such as status overrides, which publish no event.
+@RestController
+public class RegistryStreamController implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistryStreamController.class);
+
+    private final PeerAwareInstanceRegistry registry;
+    private final ScheduledExecutorService sender;
+    // Only touched on the sender thread
+    private final List<SseEmitter> subscribers = new ArrayList<>();
+
+    public RegistryStreamController(
+            PeerAwareInstanceRegistry registry,
+            @Value("${registry.stream.resync-interval:30s}") Duration resyncInterval,
+            MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "registry-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = resyncInterval.toMillis();
+        sender.scheduleWithFixedDelay(this::resync, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        Gauge.builder("registry.stream.subscribers", subscribers, List::size)
+                .description("Clients subscribed to the registry stream")
+                .register(meterRegistry);
+    }
+
+    @GetMapping(path = RegistryStream.PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> sender.execute(() -> subscribers.remove(emitter)));
+        emitter.onError(e -> sender.execute(() -> subscribers.remove(emitter)));
+        sender.execute(() -> {
+            if (send(emitter, RegistryStream.SNAPSHOT, snapshot())) {
+                subscribers.add(emitter);
+            }
+        });
+        return emitter;
+    }
+
+    // Also published for status changes, which Eureka clients report by registering again
+    @EventListener
+    public void onRegistered(EurekaInstanceRegisteredEvent event) {
+        InstanceInfo info = event.getInstanceInfo();
+        if (info.getStatus() == InstanceInfo.InstanceStatus.UP) {
+            broadcast(RegistryStream.REGISTER, toRegistryInstance(info));
+        } else {
+            broadcast(RegistryStream.CANCEL, RegistryInstance.cancelled(serviceId(info.getAppName()), info.getId()));
+        }
+    }
+
+    @EventListener
+    public void onCanceled(EurekaInstanceCanceledEvent event) {
+        broadcast(RegistryStream.CANCEL, RegistryInstance.cancelled(serviceId(event.getAppName()), event.getServerId()));
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+    }
+
+    private void broadcast(String event, Object data) {
+        sender.execute(() -> subscribers.removeIf(emitter -> !send(emitter, event, data)));
+    }
+
+    private void resync() {
+        if (!subscribers.isEmpty()) {
+            List<RegistryInstance> snapshot = snapshot();
+            subscribers.removeIf(emitter -> !send(emitter, RegistryStream.SNAPSHOT, snapshot));
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping registry stream subscriber: {}", e.toString());
+            emitter.complete();
+            return false;
+        }
+    }
+
+    private List<RegistryInstance> snapshot() {
+        List<RegistryInstance> instances = new ArrayList<>();
+        for (Application application : registry.getApplications().getRegisteredApplications()) {
+            for (InstanceInfo info : application.getInstances()) {
+                if (info.getStatus() == InstanceInfo.InstanceStatus.UP) {
+                    instances.add(toRegistryInstance(info));
+                }
+            }
+        }
+        return instances;
+    }
+
+    // Same host, port and scheme as Spring Cloud's EurekaServiceInstance
+    private static RegistryInstance toRegistryInstance(InstanceInfo info) {
+        boolean secure = info.isPortEnabled(InstanceInfo.PortType.SECURE);
+        return new RegistryInstance(
+                serviceId(info.getAppName()),
+                info.getId(),
+                info.getHostName(),
+                secure ? info.getSecurePort() : info.getPort(),
+                secure,
+                info.getMetadata());
+    }
+
+    private static String serviceId(String appName) {
+        return appName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,138 @@
+package com.netflix.oss.loadgen;
+
+import com.netflix.oss.common.timing.ServerTiming;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load: requests are sent on a fixed schedule whether or not earlier ones have
+// completed, the way independent users arrive. Latency is measured from the scheduled send time
+// rather than the actual one, so a stalled server or a late sender thread shows up in the
+// percentiles instead of silently lowering the offered rate (coordinated omission).
+// The Server-Timing entries of successful responses are recorded per entry name as well, in the
+// order the hops report them.
+final class ConstantRateDriver {
+
+    record Result(String hop, String route, int offeredRate, Duration duration,
+                  long sent, long errors, Histogram latencyMicros, Map<String, Histogram> serverTimingMicros) {
+
+        double throughput() {
+            return latencyMicros.getTotalCount() / (duration.toNanos() / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        double maxMillis() {
+            return latencyMicros.getMaxValue() / 1000.0;
+        }
+    }
+
+    private final CloseableHttpAsyncClient client;
+    private final int rate;
+    private final Duration timeout;
+
+    ConstantRateDriver(CloseableHttpAsyncClient client, int rate, Duration timeout) {
+        this.client = client;
+        this.rate = rate;
+        this.timeout = timeout;
+    }
+
+    Result run(Scenario scenario, Duration warmup, Duration duration) throws InterruptedException {
+        Recorder recorder = new Recorder(3);
+        AtomicLong sent = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong inFlight = new AtomicLong();
+        Map<String, Recorder> serverTimings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = scheduled >= measureFrom;
+            if (measured) {
+                sent.incrementAndGet();
+            }
+            inFlight.incrementAndGet();
+            client.execute(scenario.requests().get(), new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    if (measured) {
+                        if (response.getCode() < 400) {
+                            recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                            recordServerTiming(response.getFirstHeader(ServerTiming.HEADER), serverTimings);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    inFlight.decrementAndGet();
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    if (measured) {
+                        errors.incrementAndGet();
+                    }
+                    inFlight.decrementAndGet();
+                }
+
+                @Override
+                public void cancelled() {
+                    failed(null);
+                }
+            });
+        }
+
+        // Let the tail of the measurement complete or time out before reading the histogram
+        long drainDeadline = System.nanoTime() + timeout.toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        Map<String, Histogram> serverTimingMicros = new LinkedHashMap<>();
+        synchronized (serverTimings) {
+            serverTimings.forEach((name, entryRecorder) -> serverTimingMicros.put(name, entryRecorder.getIntervalHistogram()));
+        }
+        return new Result(scenario.hop(), scenario.route(), rate, duration,
+                sent.get(), errors.get(), recorder.getIntervalHistogram(), serverTimingMicros);
+    }
+
+    // name;dur=12.3, name;desc="...";dur=4.5, ...
+    private static void recordServerTiming(Header header, Map<String, Recorder> serverTimings) {
+        if (header == null) {
+            return;
+        }
+        for (String entry : header.getValue().split(",")) {
+            String[] parts = entry.trim().split(";");
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("dur=")) {
+                    long micros = Math.round(Double.parseDouble(parameter.substring(4)) * 1000);
+                    serverTimings.computeIfAbsent(parts[0], name -> new Recorder(3)).recordValue(micros);
+                }
+            }
+        }
+    }
+}
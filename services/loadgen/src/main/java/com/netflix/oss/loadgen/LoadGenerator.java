@@ -0,0 +1,214 @@
+package com.netflix.oss.loadgen;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.util.Timeout;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Runs the full chain locally and measures it: config-server, eureka-server, cloud-gateway,
+// user-bff, middleware and backend are started from their jars with generated mTLS material,
+// then each selected route is driven at a constant rate at each selected hop in turn, starting at
+// the gateway. Reports p50/p99/p99.9 latency and throughput per hop and route, plus how much of
+// the median each hop adds.
+//
+//   cd services && mvn -B package -DskipTests && java -jar loadgen/target/loadgen.jar --rate=200
+public class LoadGenerator {
+
+    private static final List<String> CHAIN = List.of("gateway", "user-bff", "middleware", "backend");
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(LoadOptions.USAGE);
+            return;
+        }
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Path workDir = Files.createTempDirectory("loadgen-");
+        System.out.println("Work directory " + workDir);
+
+        LocalStack stack = null;
+        Path keyStore = options.keyStore();
+        Path trustStore = options.trustStore();
+        if (options.launch()) {
+            LocalCertificates certificates = LocalCertificates.generate(workDir.resolve("certs"));
+            keyStore = keyStore != null ? keyStore : certificates.clientKeyStore();
+            trustStore = trustStore != null ? trustStore : certificates.trustStore();
+
+            stack = new LocalStack(options.servicesDir(), workDir, options.serviceJvmArgs(), options.startupTimeout());
+            LocalStack started = stack;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+
+            System.out.println("Starting services, logs in " + stack.logDir());
+            stack.start(certificates);
+            if (options.hops().contains("gateway")) {
+                stack.awaitOk("http://localhost:8080/api/rest/hello?name=loadgen");
+            }
+        }
+
+        List<ConstantRateDriver.Result> results = new ArrayList<>();
+        try (CloseableHttpAsyncClient client = client(options, keyStore, trustStore)) {
+            client.start();
+            ConstantRateDriver driver = new ConstantRateDriver(client, options.rate(), options.timeout());
+
+            System.out.printf("%nOffering %d req/s per hop and route: %s warmup, %s measured%n%n",
+                    options.rate(), format(options.warmup()), format(options.duration()));
+            System.out.println(header());
+            for (String hop : CHAIN) {
+                if (!options.hops().contains(hop)) {
+                    continue;
+                }
+                for (String route : options.routes()) {
+                    Scenario scenario = Scenario.of(hop, route, options.idSpace(), options.wireFormat());
+                    ConstantRateDriver.Result result = driver.run(scenario, options.warmup(), options.duration());
+                    results.add(result);
+                    System.out.println(row(result));
+                }
+            }
+        } finally {
+            if (stack != null) {
+                stack.close();
+            }
+        }
+
+        printHopBreakdown(results, options.routes());
+        printServerTimings(results);
+    }
+
+    private static CloseableHttpAsyncClient client(LoadOptions options, Path keyStore, Path trustStore) throws Exception {
+        Timeout timeout = Timeout.of(options.timeout());
+        PoolingAsyncClientConnectionManagerBuilder connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(10_000)
+                .setMaxConnPerRoute(10_000)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout)
+                        .setSocketTimeout(timeout)
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1)
+                        .build());
+        if (keyStore != null && trustStore != null) {
+            connectionManager.setTlsStrategy(ClientTlsStrategyBuilder.create()
+                    .setSslContext(LocalCertificates.clientSslContext(keyStore, trustStore))
+                    .build());
+        }
+        PoolingAsyncClientConnectionManager connections = connectionManager.build();
+
+        return HttpAsyncClients.custom()
+                .setConnectionManager(connections)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout)
+                        .setResponseTimeout(timeout)
+                        .build())
+                .disableAutomaticRetries()
+                .disableRedirectHandling()
+                .build();
+    }
+
+    // PT1M30S -> 1m30s
+    private static String format(Duration duration) {
+        return duration.toString().substring(2).toLowerCase(Locale.ROOT);
+    }
+
+    private static String header() {
+        return String.format("%-11s %-8s %9s %9s %7s %10s %9s %9s %9s",
+                "hop", "route", "sent", "ok/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    private static String row(ConstantRateDriver.Result result) {
+        return String.format("%-11s %-8s %9d %9.1f %7d %10.2f %9.2f %9.2f %9.2f",
+                result.hop(), result.route(), result.sent(), result.throughput(), result.errors(),
+                result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(99.9),
+                result.maxMillis());
+    }
+
+    // Median latency added by each hop: its p50 minus the p50 of the next hop measured on its own.
+    // Only the median is split this way, tail percentiles of the hops do not add up.
+    private static void printHopBreakdown(List<ConstantRateDriver.Result> results, List<String> routes) {
+        Map<String, List<ConstantRateDriver.Result>> byRoute = results.stream()
+                .collect(Collectors.groupingBy(ConstantRateDriver.Result::route));
+        if (byRoute.values().stream().allMatch(measured -> measured.size() < 2)) {
+            return;
+        }
+
+        System.out.printf("%nMedian latency added per hop (ms)%n");
+        System.out.printf("%-8s", "route");
+        for (String hop : CHAIN) {
+            System.out.printf(" %11s", hop);
+        }
+        System.out.println();
+        for (String route : routes) {
+            List<ConstantRateDriver.Result> measured = byRoute.getOrDefault(route, List.of());
+            System.out.printf("%-8s", route);
+            for (String hop : CHAIN) {
+                int index = indexOf(measured, hop);
+                if (index < 0 || measured.get(index).latencyMicros().getTotalCount() == 0) {
+                    System.out.printf(" %11s", "-");
+                    continue;
+                }
+                double p50 = measured.get(index).percentileMillis(50);
+                double downstream = index + 1 < measured.size() && measured.get(index + 1).latencyMicros().getTotalCount() > 0
+                        ? measured.get(index + 1).percentileMillis(50)
+                        : 0;
+                System.out.printf(" %11.2f", p50 - downstream);
+            }
+            System.out.println();
+        }
+    }
+
+    // What each hop reported about itself and its downstream call on the same requests. The gap
+    // between a call entry (user-bff.middleware) and the hop it called (middleware) is network,
+    // TLS and queueing, which is where mTLS handshakes show up.
+    private static void printServerTimings(List<ConstantRateDriver.Result> results) {
+        if (results.stream().allMatch(result -> result.serverTimingMicros().isEmpty())) {
+            return;
+        }
+        System.out.printf("%nServer-Timing entries (ms)%n");
+        System.out.printf("%-11s %-8s %-22s %9s %9s %9s%n", "hop", "route", "entry", "p50 ms", "p99 ms", "p99.9 ms");
+        for (ConstantRateDriver.Result result : results) {
+            result.serverTimingMicros().forEach((name, histogram) -> System.out.printf(
+                    "%-11s %-8s %-22s %9.2f %9.2f %9.2f%n", result.hop(), result.route(), name,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0));
+        }
+    }
+
+    private static int indexOf(List<ConstantRateDriver.Result> results, String hop) {
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).hop().equals(hop)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
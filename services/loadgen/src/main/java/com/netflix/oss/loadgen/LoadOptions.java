@@ -0,0 +1,128 @@
+package com.netflix.oss.loadgen;
+
+import com.netflix.oss.common.wire.WireFormat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Command line of the load generator, all options in --name=value form
+record LoadOptions(
+        int rate,
+        Duration warmup,
+        Duration duration,
+        Duration timeout,
+        List<String> hops,
+        List<String> routes,
+        int idSpace,
+        WireFormat wireFormat,
+        boolean launch,
+        Path servicesDir,
+        List<String> serviceJvmArgs,
+        Duration startupTimeout,
+        Path keyStore,
+        Path trustStore) {
+
+    static final String USAGE = """
+            Usage: java -jar loadgen/target/loadgen.jar [options]   (run from services/)
+
+              --rate=200               requests per second offered to each hop and route
+              --warmup=10s             unrecorded load before each measurement
+              --duration=30s           recorded load per hop and route
+              --timeout=5s             response timeout, slower requests count as errors
+              --hops=gateway,user-bff,middleware,backend
+              --routes=rest,graphql,soap
+              --id-space=100000        user ids are drawn at random from 1..id-space
+              --wire-format=cbor       encoding of direct middleware and backend calls (json or cbor)
+              --launch=true            start the six services; false drives an already running local stack
+              --services-dir=.         directory holding the built service modules
+              --service-jvm-args=      extra JVM options for every launched service, space separated
+              --startup-timeout=180s   time allowed for the stack to become ready
+              --key-store=, --trust-store=
+                                       client key and truststore (PKCS12, password changeit) for calling
+                                       middleware directly; default to the generated ones when launching
+            """;
+
+    private static final Set<String> HOPS = Set.of("gateway", "user-bff", "middleware", "backend");
+    private static final Set<String> ROUTES = Set.of("rest", "graphql", "soap");
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unrecognised argument " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        String jvmArgs = take(values, "service-jvm-args", "").trim();
+        LoadOptions options = new LoadOptions(
+                Integer.parseInt(take(values, "rate", "200")),
+                duration(take(values, "warmup", "10s")),
+                duration(take(values, "duration", "30s")),
+                duration(take(values, "timeout", "5s")),
+                list(take(values, "hops", "gateway,user-bff,middleware,backend"), HOPS),
+                list(take(values, "routes", "rest,graphql,soap"), ROUTES),
+                Integer.parseInt(take(values, "id-space", "100000")),
+                WireFormat.valueOf(take(values, "wire-format", "cbor").toUpperCase(Locale.ROOT)),
+                Boolean.parseBoolean(take(values, "launch", "true")),
+                Path.of(take(values, "services-dir", ".")).toAbsolutePath().normalize(),
+                jvmArgs.isEmpty() ? List.of() : List.of(jvmArgs.split("\\s+")),
+                duration(take(values, "startup-timeout", "180s")),
+                path(take(values, "key-store", null)),
+                path(take(values, "trust-store", null)));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        if (!options.launch() && options.hops().contains("middleware")
+                && (options.keyStore() == null || options.trustStore() == null)) {
+            throw new IllegalArgumentException("--key-store and --trust-store are required to call middleware without --launch");
+        }
+        if (options.rate() <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        return options;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Path path(String value) {
+        return value != null ? Path.of(value).toAbsolutePath() : null;
+    }
+
+    // 500ms, 30s, 2m
+    static Duration duration(String text) {
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Cannot parse duration " + text);
+        };
+    }
+
+    private static List<String> list(String value, Set<String> allowed) {
+        List<String> items = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+        for (String item : items) {
+            if (!allowed.contains(item)) {
+                throw new IllegalArgumentException("Unknown value " + item + ", expected one of " + allowed);
+            }
+        }
+        return items;
+    }
+}
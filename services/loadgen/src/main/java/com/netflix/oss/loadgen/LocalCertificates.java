@@ -0,0 +1,107 @@
+package com.netflix.oss.loadgen;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+
+// Self-signed mTLS material for a local run, generated with keytool: the middleware server key,
+// the user-bff client key, a truststore holding both certificates and an empty CRL directory.
+// The load generator presents the user-bff key when it calls middleware directly.
+final class LocalCertificates {
+
+    static final String PASSWORD = "changeit";
+
+    private final Path dir;
+
+    private LocalCertificates(Path dir) {
+        this.dir = dir;
+    }
+
+    static LocalCertificates generate(Path dir) throws IOException, InterruptedException {
+        Files.createDirectories(dir.resolve("crl"));
+        LocalCertificates certificates = new LocalCertificates(dir);
+        certificates.generateKeyPair("middleware", "CN=localhost,OU=Load Test,O=Netflix OSS", "SAN=dns:localhost,ip:127.0.0.1");
+        certificates.generateKeyPair("user-bff", "CN=user-bff,OU=Load Test,O=Netflix OSS", null);
+        certificates.trust("middleware");
+        certificates.trust("user-bff");
+        return certificates;
+    }
+
+    Path middlewareKeyStore() {
+        return dir.resolve("middleware.p12");
+    }
+
+    Path clientKeyStore() {
+        return dir.resolve("user-bff.p12");
+    }
+
+    Path trustStore() {
+        return dir.resolve("truststore.p12");
+    }
+
+    Path crlDir() {
+        return dir.resolve("crl");
+    }
+
+    // Client side of the mTLS hop, as user-bff presents it; both stores are PKCS12 protected by PASSWORD
+    static SSLContext clientSslContext(Path keyStore, Path trustStore) throws IOException, GeneralSecurityException {
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(load(keyStore), PASSWORD.toCharArray());
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(load(trustStore));
+
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagers.getKeyManagers(), trustManagers.getTrustManagers(), null);
+        return sslContext;
+    }
+
+    private static KeyStore load(Path path) throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, PASSWORD.toCharArray());
+        }
+        return keyStore;
+    }
+
+    private void generateKeyPair(String alias, String dname, String extension) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                "-genkeypair", "-alias", alias, "-keyalg", "RSA", "-keysize", "2048",
+                "-dname", dname, "-validity", "2", "-storetype", "PKCS12",
+                "-keystore", dir.resolve(alias + ".p12").toString(),
+                "-storepass", PASSWORD, "-keypass", PASSWORD));
+        if (extension != null) {
+            command.add("-ext");
+            command.add(extension);
+        }
+        keytool(command);
+        keytool(List.of("-exportcert", "-rfc", "-alias", alias,
+                "-keystore", dir.resolve(alias + ".p12").toString(), "-storepass", PASSWORD,
+                "-file", dir.resolve(alias + ".crt").toString()));
+    }
+
+    private void trust(String alias) throws IOException, InterruptedException {
+        keytool(List.of("-importcert", "-noprompt", "-alias", alias,
+                "-file", dir.resolve(alias + ".crt").toString(),
+                "-keystore", trustStore().toString(), "-storetype", "PKCS12", "-storepass", PASSWORD));
+    }
+
+    private static void keytool(List<String> args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "keytool").toString());
+        command.addAll(args);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes());
+        if (process.waitFor() != 0) {
+            throw new IOException("keytool " + args.get(0) + " failed: " + output);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.netflix.oss.loadgen;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// The six services started as child processes from their built jars, on the ports of the shared
+// configuration. Only what cannot work on a developer machine is overridden on the command line:
+// the /opt keystores and CRL directory are replaced by the generated ones. Each service logs to
+// <work dir>/logs/<service>.log.
+final class LocalStack implements AutoCloseable {
+
+    record Service(String name, int port, String healthUrl, List<String> args) {
+    }
+
+    private final Path servicesDir;
+    private final Path logDir;
+    private final Path stateDir;
+    private final List<String> jvmArgs;
+    private final Duration startupTimeout;
+    private final HttpClient probe = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final List<Process> processes = new ArrayList<>();
+
+    LocalStack(Path servicesDir, Path workDir, List<String> jvmArgs, Duration startupTimeout) {
+        this.servicesDir = servicesDir;
+        this.logDir = workDir.resolve("logs");
+        this.stateDir = workDir.resolve("state");
+        this.jvmArgs = jvmArgs;
+        this.startupTimeout = startupTimeout;
+    }
+
+    void start(LocalCertificates certificates) throws IOException, InterruptedException {
+        // Registry and configuration first, everything else reads from them at startup
+        List<Service> infrastructure = infrastructure();
+        List<Service> services = services(certificates);
+
+        for (Service service : Stream.concat(infrastructure.stream(), services.stream()).toList()) {
+            if (listening(service.port())) {
+                throw new IllegalStateException("Port " + service.port() + " for " + service.name()
+                        + " is already in use; stop the running service or pass --launch=false");
+            }
+        }
+
+        Files.createDirectories(logDir);
+        long deadline = System.nanoTime() + startupTimeout.toNanos();
+        startAll(infrastructure, deadline);
+        startAll(services, deadline);
+    }
+
+    static List<Service> infrastructure() {
+        return List.of(
+                new Service("config-server", 8888, "http://localhost:8888/actuator/health", List.of()),
+                new Service("eureka-server", 8761, "http://localhost:8761/actuator/health", List.of()));
+    }
+
+    static List<Service> services(LocalCertificates certificates) {
+        return List.of(
+                new Service("backend", 8083, "http://localhost:8083/actuator/health", List.of()),
+                new Service("middleware", 8082, "http://localhost:8092/actuator/health", List.of(
+                        "--server.ssl.key-store=" + certificates.middlewareKeyStore(),
+                        "--server.ssl.trust-store=" + certificates.trustStore(),
+                        "--middleware.revocation.crl-dir=" + certificates.crlDir())),
+                new Service("user-bff", 8081, "http://localhost:8081/actuator/health", List.of(
+                        "--middleware.ssl.key-store=" + certificates.clientKeyStore(),
+                        "--middleware.ssl.trust-store=" + certificates.trustStore())),
+                new Service("cloud-gateway", 8080, "http://localhost:8080/actuator/health", List.of()));
+    }
+
+    // Polls url until it answers 200 or the startup timeout runs out. Used for the gateway routes,
+    // which only work once the gateway has fetched user-bff from the registry.
+    void awaitOk(String url) throws InterruptedException {
+        long deadline = System.nanoTime() + startupTimeout.toNanos();
+        while (status(url) != 200) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(url + " did not answer 200 within " + startupTimeout);
+            }
+            Thread.sleep(1000);
+        }
+    }
+
+    // Snapshots the services keep between starts go to /opt/<service>/state on the VMs, which does
+    // not exist here; the run's own directory takes its place
+    static List<String> stateArgs(Path stateDir, String service) {
+        return List.of(
+                "--config.snapshot.path=" + stateDir.resolve(service + "-config.json.gz"),
+                "--registry.mirror.snapshot-path=" + stateDir.resolve(service + "-registry.cbor"));
+    }
+
+    Path logDir() {
+        return logDir;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            if (!process.waitFor(20, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void startAll(List<Service> services, long deadline) throws IOException, InterruptedException {
+        List<Process> started = new ArrayList<>();
+        for (Service service : services) {
+            started.add(launch(service));
+        }
+        for (int i = 0; i < services.size(); i++) {
+            Service service = services.get(i);
+            while (status(service.healthUrl()) != 200) {
+                if (!started.get(i).isAlive()) {
+                    throw new IllegalStateException(service.name() + " exited during startup, see "
+                            + logDir.resolve(service.name() + ".log"));
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(service.name() + " was not healthy within " + startupTimeout
+                            + ", see " + logDir.resolve(service.name() + ".log"));
+                }
+                Thread.sleep(500);
+            }
+            System.out.printf("  %-14s up on port %d%n", service.name(), service.port());
+        }
+    }
+
+    private Process launch(Service service) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar(servicesDir, service.name()).toString());
+        command.addAll(stateArgs(stateDir, service.name()));
+        command.addAll(service.args());
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve(service.name() + ".log").toFile())
+                .start();
+        processes.add(process);
+        return process;
+    }
+
+    // backend, middleware and user-bff ship an -exec jar next to the plain one
+    static Path jar(Path servicesDir, String service) throws IOException {
+        Path target = servicesDir.resolve(service).resolve("target");
+        List<Path> jars;
+        try (Stream<Path> files = Files.list(target)) {
+            jars = files.filter(file -> file.getFileName().toString().startsWith(service + "-")
+                            && file.getFileName().toString().endsWith(".jar"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new IOException("No build output for " + service + " in " + target
+                    + ", run mvn -B package -DskipTests in " + servicesDir + " first", e);
+        }
+        return jars.stream()
+                .filter(file -> file.getFileName().toString().endsWith("-exec.jar"))
+                .findFirst()
+                .or(() -> jars.stream().findFirst())
+                .orElseThrow(() -> new IOException("No jar for " + service + " in " + target));
+    }
+
+    private int status(String url) throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).build();
+            return probe.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    static boolean listening(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", port), 500);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
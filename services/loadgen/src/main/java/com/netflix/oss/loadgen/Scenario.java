@@ -0,0 +1,91 @@
+package com.netflix.oss.loadgen;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.wire.WireFormat;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// One route driven at one hop. The public routes are called on the gateway and on user-bff;
+// middleware and backend get the payload user-bff would forward for that route, so the same
+// route measured at every hop shows how much latency each hop adds. User ids are random so the
+// user-bff status cache sees a realistic mix instead of a single hot key.
+record Scenario(String hop, String route, Supplier<SimpleHttpRequest> requests) {
+
+    // The id goes in as a variable so every request reuses user-bff's parsed document
+    private static final String GRAPHQL_QUERY = "{\"query\":\"query UserStatus($id: String!) { userStatus(id: $id) "
+            + "{ id status servedBy mtlsVerified clientCN backendVersion } }\",\"variables\":{\"id\":\"%d\"}}";
+
+    private static final String SOAP_ENVELOPE = """
+            <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/" xmlns:user="http://netflix.oss/user">
+               <soapenv:Header/>
+               <soapenv:Body>
+                  <user:GetUserStatusRequest>
+                     <user:userId>%d</user:userId>
+                  </user:GetUserStatusRequest>
+               </soapenv:Body>
+            </soapenv:Envelope>""";
+
+    static Scenario of(String hop, String route, int idSpace, WireFormat wireFormat) {
+        return new Scenario(hop, route, switch (hop) {
+            case "gateway" -> publicRoute("http://localhost:8080", route, idSpace);
+            case "user-bff" -> publicRoute("http://localhost:8081", route, idSpace);
+            case "middleware" -> forwardRoute("https://localhost:8082/api/mw/forward", route, idSpace, wireFormat);
+            case "backend" -> forwardRoute("http://localhost:8083/api/backend/process", route, idSpace, wireFormat);
+            default -> throw new IllegalArgumentException("Unknown hop " + hop);
+        });
+    }
+
+    private static Supplier<SimpleHttpRequest> publicRoute(String baseUrl, String route, int idSpace) {
+        return switch (route) {
+            case "rest" -> () -> SimpleRequestBuilder.get(baseUrl + "/api/rest/hello?name=load-" + randomId(idSpace))
+                    .build();
+            case "graphql" -> () -> SimpleRequestBuilder.post(baseUrl + "/graphql")
+                    .setBody(GRAPHQL_QUERY.formatted(randomId(idSpace)), ContentType.APPLICATION_JSON)
+                    .build();
+            case "soap" -> () -> SimpleRequestBuilder.post(baseUrl + "/ws")
+                    .setBody(SOAP_ENVELOPE.formatted(randomId(idSpace)), ContentType.TEXT_XML)
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown route " + route);
+        };
+    }
+
+    // Same operations and batching as RestApiController, GraphQLController and UserEndpoint
+    private static Supplier<SimpleHttpRequest> forwardRoute(String url, String route, int idSpace, WireFormat wireFormat) {
+        ObjectMapper mapper = wireFormat == WireFormat.CBOR ? new ObjectMapper(new CBORFactory()) : new ObjectMapper();
+        ContentType contentType = ContentType.create(wireFormat.mediaType());
+        return switch (route) {
+            case "rest" -> () -> encode(url, mapper, contentType, wireFormat,
+                    UserRequest.forName("hello", "load-" + randomId(idSpace), "rest-api"));
+            case "graphql" -> () -> encode(url + "-batch", mapper, contentType, wireFormat,
+                    List.of(UserRequest.forUser("getUserStatus", String.valueOf(randomId(idSpace)), "graphql-api")));
+            case "soap" -> () -> encode(url, mapper, contentType, wireFormat,
+                    UserRequest.forUser("getUserStatus", String.valueOf(randomId(idSpace)), "soap-api"));
+            default -> throw new IllegalArgumentException("Unknown route " + route);
+        };
+    }
+
+    private static SimpleHttpRequest encode(String url, ObjectMapper mapper, ContentType contentType,
+                                            WireFormat wireFormat, Object payload) {
+        try {
+            return SimpleRequestBuilder.post(url)
+                    .setHeader(HttpHeaders.ACCEPT, wireFormat.accept())
+                    .setBody(mapper.writeValueAsBytes(payload), contentType)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode " + payload, e);
+        }
+    }
+
+    private static int randomId(int idSpace) {
+        return ThreadLocalRandom.current().nextInt(idSpace) + 1;
+    }
+}
@@ -0,0 +1,197 @@
+package com.netflix.oss.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Cold start of each service on its own, in the default mode (the Boot jar) and in the fast-start
+// mode (AOT, thin jar and CDS archive from mvn -Pfast-start). Every run starts a fresh JVM and
+// measures the time until the service answers its first request with 200, and the resident set
+// size at that moment. Runs of the two modes alternate, so a slow spell on the machine hits both.
+// Config-server and Eureka are not started; every service starts without them.
+//
+//   cd services && mvn -B package -DskipTests -Pfast-start
+//   java -cp loadgen/target/loadgen.jar com.netflix.oss.loadgen.StartupBenchmark --runs=5
+public class StartupBenchmark {
+
+    static final String USAGE = """
+            Usage: java -cp loadgen/target/loadgen.jar com.netflix.oss.loadgen.StartupBenchmark [options]
+                   (run from services/)
+
+              --services=config-server,eureka-server,backend,middleware,user-bff,cloud-gateway
+              --modes=default,fast-start
+              --runs=3                 cold starts per service and mode
+              --services-dir=.         directory holding the built service modules
+              --service-jvm-args=      extra JVM options for every run, space separated
+              --startup-timeout=120s   time allowed for one start
+            """;
+
+    private static final List<String> MODES = List.of("default", "fast-start");
+
+    private final Path servicesDir;
+    private final Path logDir;
+    private final List<String> jvmArgs;
+    private final Duration startupTimeout;
+    private final HttpClient probe = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    StartupBenchmark(Path servicesDir, Path logDir, List<String> jvmArgs, Duration startupTimeout) {
+        this.servicesDir = servicesDir;
+        this.logDir = logDir;
+        this.jvmArgs = jvmArgs;
+        this.startupTimeout = startupTimeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(USAGE);
+            return;
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Unrecognised argument " + arg);
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        List<String> names = List.of(values.getOrDefault("services",
+                "config-server,eureka-server,backend,middleware,user-bff,cloud-gateway").split(","));
+        List<String> modes = List.of(values.getOrDefault("modes", String.join(",", MODES)).split(","));
+        int runs = Integer.parseInt(values.getOrDefault("runs", "3"));
+        Path servicesDir = Path.of(values.getOrDefault("services-dir", ".")).toAbsolutePath().normalize();
+        String jvmArgs = values.getOrDefault("service-jvm-args", "").trim();
+        Duration startupTimeout = LoadOptions.duration(values.getOrDefault("startup-timeout", "120s"));
+        for (String mode : modes) {
+            if (!MODES.contains(mode)) {
+                throw new IllegalArgumentException("Unknown mode " + mode + ", expected one of " + MODES);
+            }
+        }
+
+        Path workDir = Files.createTempDirectory("startup-");
+        System.out.println("Work directory " + workDir);
+        LocalCertificates certificates = LocalCertificates.generate(workDir.resolve("certs"));
+        Map<String, LocalStack.Service> services = new LinkedHashMap<>();
+        Stream.concat(LocalStack.infrastructure().stream(), LocalStack.services(certificates).stream())
+                .forEach(service -> services.put(service.name(), service));
+
+        StartupBenchmark benchmark = new StartupBenchmark(servicesDir, workDir.resolve("logs"),
+                jvmArgs.isEmpty() ? List.of() : List.of(jvmArgs.split("\\s+")), startupTimeout);
+        Files.createDirectories(benchmark.logDir);
+
+        System.out.printf("%n%-14s %-11s %5s %12s %12s %10s%n",
+                "service", "mode", "runs", "first 200", "fastest", "RSS");
+        for (String name : names) {
+            LocalStack.Service service = services.get(name);
+            if (service == null) {
+                throw new IllegalArgumentException("Unknown service " + name + ", expected one of " + services.keySet());
+            }
+            Map<String, List<Sample>> samples = new LinkedHashMap<>();
+            for (int run = 0; run < runs; run++) {
+                for (String mode : modes) {
+                    samples.computeIfAbsent(mode, m -> new ArrayList<>()).add(benchmark.start(service, mode, run));
+                }
+            }
+            samples.forEach((mode, results) -> print(name, mode, results));
+        }
+    }
+
+    private Sample start(LocalStack.Service service, String mode, int run) throws IOException, InterruptedException {
+        if (LocalStack.listening(service.port())) {
+            throw new IllegalStateException("Port " + service.port() + " for " + service.name() + " is already in use");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        if (mode.equals("fast-start")) {
+            Path argFile = servicesDir.resolve(service.name()).resolve("target/fast-start/" + service.name() + ".args");
+            if (!Files.isRegularFile(argFile)) {
+                throw new IOException("No fast-start build of " + service.name() + ", run mvn -B package -DskipTests"
+                        + " -Pfast-start in " + servicesDir + " first");
+            }
+            command.add("@" + argFile);
+        } else {
+            command.add("-jar");
+            command.add(LocalStack.jar(servicesDir, service.name()).toString());
+        }
+        // The same configuration in every run, whatever config snapshot an earlier start left behind
+        command.add("--spring.cloud.config.enabled=false");
+        command.addAll(LocalStack.stateArgs(logDir.resolveSibling("state"), service.name()));
+        command.addAll(service.args());
+
+        Path log = logDir.resolve(service.name() + "-" + mode + "-" + run + ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + startupTimeout.toNanos();
+            while (status(service.healthUrl()) != 200) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(service.name() + " exited during startup, see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(service.name() + " did not answer within " + startupTimeout
+                            + ", see " + log);
+                }
+                Thread.sleep(20);
+            }
+            return new Sample(System.nanoTime() - start, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(20, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private int status(String url) throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).build();
+            return probe.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Linux only; -1 elsewhere
+    private static long rssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not available on this platform
+        }
+        return -1;
+    }
+
+    private static void print(String service, String mode, List<Sample> samples) {
+        long[] nanos = samples.stream().mapToLong(Sample::nanos).sorted().toArray();
+        long[] rss = samples.stream().mapToLong(Sample::rssKb).sorted().toArray();
+        long medianRss = rss[rss.length / 2];
+        System.out.printf("%-14s %-11s %5d %10.2f s %10.2f s %10s%n", service, mode, samples.size(),
+                nanos[nanos.length / 2] / 1e9, nanos[0] / 1e9,
+                medianRss < 0 ? "n/a" : (medianRss / 1024) + " MB");
+    }
+
+    private record Sample(long nanos, long rssKb) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.netflix.oss.middleware.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caps the forward calls in progress below Tomcat's thread count, so health, secure-echo and
+// registry traffic always find a free worker when backend is slow. A forward that finds no free
+// permit may wait for one briefly; that wait is the queue delay. When even the shortest wait has
+// stayed above the target for a whole interval (CoDel), middleware is overloaded: LOW forwards are
+// shed outright and NORMAL ones stop waiting, until a forward gets a permit without queueing.
+public class ForwardAdmission {
+
+    public enum Outcome { ADMITTED, SATURATED, OVERLOADED }
+
+    private final int maxConcurrent;
+    private final int lowPriorityReserve;
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final long maxWaitNanos;
+
+    private final Semaphore permits;
+    // Deadline after which a queue delay still above target means overload, 0 while below target
+    private final AtomicLong aboveTargetUntil = new AtomicLong();
+    private volatile boolean overloaded;
+
+    private final Timer waitTimer;
+    private final Map<Priority, Counter> saturated = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+
+    public ForwardAdmission(int maxConcurrent, double lowPriorityShare, Duration target, Duration interval,
+                            Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxConcurrent = maxConcurrent;
+        this.lowPriorityReserve = maxConcurrent - (int) Math.ceil(maxConcurrent * lowPriorityShare);
+        this.targetNanos = target.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrent);
+
+        Gauge.builder("middleware.admission.in-flight", this, admission -> admission.maxConcurrent - admission.permits.availablePermits())
+                .description("Forward calls holding an admission permit")
+                .register(meterRegistry);
+        Gauge.builder("middleware.admission.overloaded", this, admission -> admission.overloaded ? 1 : 0)
+                .description("1 while queue delay has stayed above target and LOW forwards are shed")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("middleware.admission.wait")
+                .description("Time forward calls waited for an admission permit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            saturated.put(priority, rejected(meterRegistry, priority, "saturated"));
+            shed.put(priority, rejected(meterRegistry, priority, "overloaded"));
+        }
+    }
+
+    public Outcome acquire(Priority priority) throws InterruptedException {
+        Outcome outcome = tryAcquire(priority);
+        return outcome != null ? outcome : await(priority);
+    }
+
+    // The part of acquire that never blocks: the outcome when it is known right away, or null when
+    // the caller may wait for a permit through await. Lets the reactive runtime keep waits off the
+    // event loop.
+    public Outcome tryAcquire(Priority priority) {
+        if (priority == Priority.LOW
+                && (overloaded || permits.availablePermits() <= lowPriorityReserve)) {
+            return reject(priority);
+        }
+
+        if (permits.tryAcquire()) {
+            observe(0);
+            return Outcome.ADMITTED;
+        }
+
+        // Only waits say something about the queue, an immediate rejection must not end overload
+        boolean waits = priority == Priority.HIGH || (priority == Priority.NORMAL && !overloaded);
+        return waits ? null : reject(priority);
+    }
+
+    public Outcome await(Priority priority) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean admitted = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        observe(System.nanoTime() - start);
+        return admitted ? Outcome.ADMITTED : reject(priority);
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    private Outcome reject(Priority priority) {
+        if (overloaded) {
+            shed.get(priority).increment();
+            return Outcome.OVERLOADED;
+        }
+        saturated.get(priority).increment();
+        return Outcome.SATURATED;
+    }
+
+    private void observe(long waitNanos) {
+        waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+        if (waitNanos < targetNanos) {
+            aboveTargetUntil.set(0);
+            overloaded = false;
+            return;
+        }
+        long now = System.nanoTime();
+        long until = aboveTargetUntil.get();
+        if (until == 0) {
+            aboveTargetUntil.compareAndSet(0, now + intervalNanos);
+        } else if (now - until >= 0) {
+            overloaded = true;
+        }
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, Priority priority, String reason) {
+        return Counter.builder("middleware.admission.rejected")
+                .description("Forward calls answered with 503 instead of being sent to backend")
+                .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.netflix.oss.middleware.admission;
+
+import java.util.Locale;
+
+// Priority of a forward call, from the X-Request-Priority header that user-bff sets per channel
+// (middleware.priority in user-bff.yml). Missing or unknown values count as NORMAL.
+public enum Priority {
+
+    // Waits for a permit even while overloaded
+    HIGH,
+    // Waits for a permit unless overloaded
+    NORMAL,
+    // Never waits, limited to a share of the permits and shed first under overload
+    LOW;
+
+    public static Priority parse(String header) {
+        if (header == null) {
+            return NORMAL;
+        }
+        return switch (header.trim().toLowerCase(Locale.ROOT)) {
+            case "high" -> HIGH;
+            case "low" -> LOW;
+            default -> NORMAL;
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.netflix.oss.middleware.config;
+
+import com.netflix.oss.middleware.admission.ForwardAdmission;
+import com.netflix.oss.middleware.filter.AdmissionFilter;
+import com.netflix.oss.middleware.filter.ReactiveAdmissionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+
+// Load shedding for forward calls; health, secure-echo and the management port are never limited.
+// max-concurrent must stay below server.tomcat.threads.max, the difference is what stays free for them.
+// The reactive runtime has no worker pool to protect, there the cap bounds the calls open to backend.
+@Configuration
+@ConditionalOnProperty(name = "middleware.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Value("${middleware.admission.max-concurrent:150}")
+    private int maxConcurrent;
+
+    @Value("${middleware.admission.low-priority-share:0.5}")
+    private double lowPriorityShare;
+
+    @Value("${middleware.admission.queue-target:5ms}")
+    private Duration queueTarget;
+
+    @Value("${middleware.admission.interval:100ms}")
+    private Duration interval;
+
+    @Value("${middleware.admission.max-queue-wait:50ms}")
+    private Duration maxQueueWait;
+
+    @Bean
+    public ForwardAdmission forwardAdmission(MeterRegistry meterRegistry) {
+        return new ForwardAdmission(maxConcurrent, lowPriorityShare, queueTarget, interval, maxQueueWait, meterRegistry);
+    }
+
+    // After revocation, so revoked clients never take a permit, and before the pass-through filter
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(ForwardAdmission forwardAdmission) {
+        FilterRegistrationBean<AdmissionFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionFilter(forwardAdmission));
+        registration.addUrlPatterns("/api/mw/forward", "/api/mw/forward-batch");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 20)
+    public ReactiveAdmissionFilter reactiveAdmissionFilter(ForwardAdmission forwardAdmission) {
+        return new ReactiveAdmissionFilter(forwardAdmission);
+    }
+}
@@ -0,0 +1,99 @@
+package com.netflix.oss.middleware.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BackendClientConfig {
+
+    @Value("${backend.http.pool.max-total:200}")
+    private int poolMaxTotal;
+
+    @Value("${backend.http.pool.max-per-route:100}")
+    private int poolMaxPerRoute;
+
+    @Value("${backend.http.pool.time-to-live:5m}")
+    private Duration poolTimeToLive;
+
+    @Value("${backend.http.pool.validate-after-inactivity:2s}")
+    private Duration poolValidateAfterInactivity;
+
+    @Value("${backend.http.pool.idle-eviction:30s}")
+    private Duration poolIdleEviction;
+
+    @Value("${backend.http.pool.lease-timeout:2s}")
+    private Duration poolLeaseTimeout;
+
+    @Value("${backend.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${backend.http.response-timeout:10s}")
+    private Duration responseTimeout;
+
+    @Value("${backend.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    // One pool shared by every backend instance; max-per-route caps what a single instance can take
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager backendConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(poolMaxTotal)
+                .setMaxConnPerRoute(poolMaxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(responseTimeout))
+                        .setTimeToLive(TimeValue.of(poolTimeToLive))
+                        .setValidateAfterInactivity(TimeValue.of(poolValidateAfterInactivity))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public RestTemplate backendRestTemplate(
+            @Qualifier("backendConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        TimeValue defaultKeepAlive = TimeValue.of(keepAlive);
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> response.containsHeader("Keep-Alive")
+                ? DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context)
+                : defaultKeepAlive;
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolLeaseTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(poolIdleEviction))
+                .build();
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean
+    public MeterBinder backendConnectionPoolMetrics(
+            @Qualifier("backendConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return registry -> new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "backend")
+                .bindTo(registry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.netflix.oss.middleware.config;
+
+import com.netflix.oss.middleware.filter.PassThroughForwardFilter;
+import com.netflix.oss.middleware.filter.ReactivePassThroughForwardFilter;
+import com.netflix.oss.middleware.security.ClientIdentityResolver;
+import com.netflix.oss.middleware.service.BackendService;
+import com.netflix.oss.middleware.service.ReactiveBackendService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// middleware.forward.mode selects how forward calls are handled: "typed" decodes the payload and
+// merges the mTLS fields into the body, "pass-through" streams bytes and reports them as headers
+@Configuration
+@ConditionalOnProperty(name = "middleware.forward.mode", havingValue = "pass-through")
+public class ForwardConfig {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<PassThroughForwardFilter> passThroughForwardFilter(
+            BackendService backendService, ClientIdentityResolver clientIdentityResolver, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<PassThroughForwardFilter> registration = new FilterRegistrationBean<>(
+                new PassThroughForwardFilter(backendService, clientIdentityResolver, meterRegistry));
+        registration.addUrlPatterns("/api/mw/forward", "/api/mw/forward-batch");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactivePassThroughForwardFilter reactivePassThroughForwardFilter(
+            ReactiveBackendService backendService, ClientIdentityResolver clientIdentityResolver,
+            MeterRegistry meterRegistry) {
+        return new ReactivePassThroughForwardFilter(backendService, clientIdentityResolver, meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.netflix.oss.middleware.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// With server.http2.enabled the mTLS connector offers h2 through ALPN next to HTTP/1.1. Tomcat's
+// defaults of 100 streams per connection and 20 executing at once are meant for browsers; user-bff
+// in HTTP/2 mode sends all its calls over one connection, so both are raised to the worker count.
+@Configuration
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+public class Http2Config {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2StreamLimits(
+            @Value("${middleware.http2.max-concurrent-streams:200}") int maxConcurrentStreams) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreams);
+                }
+            }
+        });
+    }
+
+    // The same cap for the reactive runtime, where all streams of a connection share its event loop
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public NettyServerCustomizer nettyHttp2StreamLimits(
+            @Value("${middleware.http2.max-concurrent-streams:200}") int maxConcurrentStreams) {
+        return server -> server.http2Settings(settings -> settings.maxConcurrentStreams(maxConcurrentStreams));
+    }
+}
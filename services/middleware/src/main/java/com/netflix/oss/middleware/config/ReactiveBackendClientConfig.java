@@ -0,0 +1,68 @@
+package com.netflix.oss.middleware.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+// BackendClientConfig for the reactive runtime, built from the same backend.http settings.
+// Reactor Netty keeps a pool per backend instance, so max-per-route is the limit that applies;
+// max-total and validate-after-inactivity have no counterpart here. Calls that find the pool
+// exhausted queue for up to lease-timeout without holding a thread.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBackendClientConfig {
+
+    @Value("${backend.http.pool.max-per-route:100}")
+    private int poolMaxPerRoute;
+
+    @Value("${backend.http.pool.time-to-live:5m}")
+    private Duration poolTimeToLive;
+
+    @Value("${backend.http.pool.idle-eviction:30s}")
+    private Duration poolIdleEviction;
+
+    @Value("${backend.http.pool.lease-timeout:2s}")
+    private Duration poolLeaseTimeout;
+
+    @Value("${backend.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${backend.http.response-timeout:10s}")
+    private Duration responseTimeout;
+
+    @Value("${backend.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    // Pool metrics are published as reactor.netty.connection.provider.* with name=backend
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider backendConnectionProvider() {
+        return ConnectionProvider.builder("backend")
+                .maxConnections(poolMaxPerRoute)
+                .pendingAcquireTimeout(poolLeaseTimeout)
+                .maxIdleTime(keepAlive)
+                .maxLifeTime(poolTimeToLive)
+                .evictInBackground(poolIdleEviction)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient backendWebClient(WebClient.Builder builder,
+                                      @Qualifier("backendConnectionProvider") ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return builder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.netflix.oss.middleware.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.oss.middleware.security.ClientIdentityResolver;
+import com.netflix.oss.middleware.security.ReactiveClientIdentityArgumentResolver;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// The reactive runtime, selected with spring.main.web-application-type=reactive. Tomcat stays on
+// the classpath for the servlet runtime and Boot would prefer it, so the Netty server is declared
+// here; server.ssl and server.http2 apply to it unchanged.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    private final ClientIdentityResolver clientIdentityResolver;
+
+    public ReactiveWebConfig(ClientIdentityResolver clientIdentityResolver) {
+        this.clientIdentityResolver = clientIdentityResolver;
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return factory;
+    }
+
+    // WebFlux has no CBOR codecs by default; applied to the server and to every WebClient.Builder.
+    // Custom codecs are consulted before the default ones, so JSON is registered again ahead of CBOR
+    // to stay the answer to Accept: */*, as it is in the servlet runtime.
+    @Bean
+    public CodecCustomizer cborCodecCustomizer(ObjectMapper objectMapper) {
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new SingleValueCborEncoder());
+            configurer.customCodecs().register(new Jackson2CborDecoder());
+        };
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactiveClientIdentityArgumentResolver(clientIdentityResolver));
+    }
+
+    // Jackson2CborEncoder only implements encodeValue and rejects every publisher, including the
+    // single values that request and response bodies are written as
+    private static final class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.netflix.oss.middleware.config;
+
+import com.netflix.oss.common.request.RequestIdFilter;
+import com.netflix.oss.middleware.filter.RequestIdWebFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// Request ID from user-bff in the MDC of every middleware log line, and on every backend call.
+// Runs before the revocation and admission filters so their rejections are logged with it
+@Configuration
+public class RequestIdConfig {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilter() {
+        FilterRegistrationBean<RequestIdFilter> registration = new FilterRegistrationBean<>(new RequestIdFilter());
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RequestIdWebFilter requestIdWebFilter() {
+        return new RequestIdWebFilter();
+    }
+}
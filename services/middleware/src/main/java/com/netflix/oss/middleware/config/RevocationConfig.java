@@ -0,0 +1,88 @@
+package com.netflix.oss.middleware.config;
+
+import com.netflix.oss.middleware.filter.ReactiveRevocationFilter;
+import com.netflix.oss.middleware.filter.RevocationFilter;
+import com.netflix.oss.middleware.security.ClientIdentityResolver;
+import com.netflix.oss.middleware.security.RevocationIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ResourceUtils;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Client certificate revocation against local CRL files; enabled by middleware.revocation.crl-dir
+@Configuration
+@ConditionalOnProperty(name = "middleware.revocation.crl-dir")
+public class RevocationConfig {
+
+    @Value("${middleware.revocation.crl-dir}")
+    private Path crlDir;
+
+    @Value("${middleware.revocation.reload-interval:30s}")
+    private Duration reloadInterval;
+
+    @Value("${server.ssl.trust-store}")
+    private String trustStorePath;
+
+    @Value("${server.ssl.trust-store-password}")
+    private String trustStorePassword;
+
+    @Value("${server.ssl.trust-store-type:PKCS12}")
+    private String trustStoreType;
+
+    @Bean
+    public RevocationIndex revocationIndex(MeterRegistry meterRegistry) throws Exception {
+        return new RevocationIndex(crlDir, reloadInterval, trustedIssuers(), meterRegistry);
+    }
+
+    // Runs right after the observation filter so rejected requests still show up in http.server.requests
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<RevocationFilter> revocationFilter(
+            ClientIdentityResolver clientIdentityResolver, RevocationIndex revocationIndex) {
+        FilterRegistrationBean<RevocationFilter> registration =
+                new FilterRegistrationBean<>(new RevocationFilter(clientIdentityResolver, revocationIndex));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 10)
+    public ReactiveRevocationFilter reactiveRevocationFilter(
+            ClientIdentityResolver clientIdentityResolver, RevocationIndex revocationIndex) {
+        return new ReactiveRevocationFilter(clientIdentityResolver, revocationIndex);
+    }
+
+    // CRLs are only accepted when signed by a CA the server already trusts for client certificates
+    private List<X509Certificate> trustedIssuers() throws Exception {
+        KeyStore trustStore = KeyStore.getInstance(trustStoreType);
+        try (InputStream in = ResourceUtils.getURL(trustStorePath).openStream()) {
+            trustStore.load(in, trustStorePassword.toCharArray());
+        }
+
+        List<X509Certificate> issuers = new ArrayList<>();
+        for (String alias : Collections.list(trustStore.aliases())) {
+            Certificate certificate = trustStore.getCertificate(alias);
+            if (certificate instanceof X509Certificate x509) {
+                issuers.add(x509);
+            }
+        }
+        return issuers;
+    }
+}
@@ -0,0 +1,36 @@
+package com.netflix.oss.middleware.config;
+
+import com.netflix.oss.common.timing.ServerTimingFilter;
+import com.netflix.oss.middleware.filter.ServerTimingWebFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// Server-Timing on every middleware response, including the backend entries. Runs before the
+// observation and revocation filters so client identity and revocation checks count towards it
+@Configuration
+public class ServerTimingConfig {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${spring.application.name}") String applicationName) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(applicationName));
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ServerTimingWebFilter serverTimingWebFilter(@Value("${spring.application.name}") String applicationName) {
+        return new ServerTimingWebFilter(applicationName);
+    }
+}
@@ -0,0 +1,26 @@
+package com.netflix.oss.middleware.config;
+
+import com.netflix.oss.middleware.security.ClientIdentityArgumentResolver;
+import com.netflix.oss.middleware.security.ClientIdentityResolver;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ClientIdentityResolver clientIdentityResolver;
+
+    public WebConfig(ClientIdentityResolver clientIdentityResolver) {
+        this.clientIdentityResolver = clientIdentityResolver;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new ClientIdentityArgumentResolver(clientIdentityResolver));
+    }
+}
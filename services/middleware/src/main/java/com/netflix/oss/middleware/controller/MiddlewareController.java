@@ -1,61 +1,103 @@
 package com.netflix.oss.middleware.controller;
 
+import com.netflix.oss.common.logging.PayloadSampler;
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
+import com.netflix.oss.middleware.security.ClientIdentity;
 import com.netflix.oss.middleware.service.BackendService;
-import jakarta.servlet.http.HttpServletRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/mw")
 public class MiddlewareController {
 
     private static final Logger logger = LoggerFactory.getLogger(MiddlewareController.class);
 
     private final BackendService backendService;
+    private final PayloadSampler payloadSampler;
+    private final Timer forwardTimer;
+    private final Timer forwardBatchTimer;
 
-    public MiddlewareController(BackendService backendService) {
+    public MiddlewareController(BackendService backendService, PayloadSampler payloadSampler,
+                                MeterRegistry meterRegistry) {
         this.backendService = backendService;
+        this.payloadSampler = payloadSampler;
+        this.forwardTimer = forwardTimer(meterRegistry, false);
+        this.forwardBatchTimer = forwardTimer(meterRegistry, true);
     }
 
     @PostMapping("/forward")
-    public ResponseEntity<Map<String, Object>> forward(
-            @RequestBody Map<String, Object> payload,
-            HttpServletRequest request) {
+    public ResponseEntity<UserResponse> forward(
+            @RequestBody UserRequest payload,
+            ClientIdentity identity) {
         
-        logger.info("Middleware received request");
+        long start = System.nanoTime();
+        logger.debug("Middleware received request");
+        payloadSampler.atInfo(logger, "forward").log("Middleware forwarding request: {}", payload);
         
-        Map<String, Object> response = new HashMap<>();
+        // Client certificate is validated on the handshake and its identity cached per certificate
+        boolean mtlsVerified = false;
+        String clientCN = "unknown";
+        
+        if (identity != null) {
+            clientCN = identity.commonName();
+            mtlsVerified = true;
+            logger.debug("mTLS verified! Client CN: {}", clientCN);
+        } else {
+            logger.warn("No client certificate provided");
+        }
+        
+        // Forward to backend
+        UserResponse backendResponse = backendService.callBackend(payload);
         
-        // Extract and validate client certificate
-        X509Certificate[] certs = (X509Certificate[]) request.getAttribute("jakarta.servlet.request.X509Certificate");
+        forwardTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return ResponseEntity.ok(backendResponse.withMtls(mtlsVerified, clientCN));
+    }
+
+    @PostMapping("/forward-batch")
+    public ResponseEntity<List<UserResponse>> forwardBatch(
+            @RequestBody List<UserRequest> payloads,
+            ClientIdentity identity) {
+        
+        long start = System.nanoTime();
+        logger.debug("Middleware received batch of {} requests", payloads.size());
+        payloadSampler.atInfo(logger, "forward-batch").log("Middleware forwarding batch: {}", payloads);
         
         boolean mtlsVerified = false;
         String clientCN = "unknown";
         
-        if (certs != null && certs.length > 0) {
-            X509Certificate clientCert = certs[0];
-            clientCN = extractCN(clientCert.getSubjectX500Principal().getName());
+        if (identity != null) {
+            clientCN = identity.commonName();
             mtlsVerified = true;
-            logger.info("mTLS verified! Client CN: {}", clientCN);
+            logger.debug("mTLS verified! Client CN: {}", clientCN);
         } else {
             logger.warn("No client certificate provided");
         }
         
-        response.put("mtlsVerified", mtlsVerified);
-        response.put("clientCN", clientCN);
-        response.put("middlewareProcessed", true);
+        // Forward the whole batch to backend in a single round trip
+        List<UserResponse> backendResponses = backendService.callBackendBatch(payloads);
         
-        // Forward to backend
-        Map<String, Object> backendResponse = backendService.callBackend(payload);
-        response.putAll(backendResponse);
+        List<UserResponse> responses = new ArrayList<>(backendResponses.size());
+        for (UserResponse backendResponse : backendResponses) {
+            responses.add(backendResponse.withMtls(mtlsVerified, clientCN));
+        }
         
-        return ResponseEntity.ok(response);
+        forwardBatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return ResponseEntity.ok(responses);
     }
 
     @GetMapping("/health")
@@ -68,18 +110,16 @@ public class MiddlewareController {
     }
 
     @GetMapping("/secure-echo")
-    public ResponseEntity<Map<String, Object>> secureEcho(HttpServletRequest request) {
+    public ResponseEntity<Map<String, Object>> secureEcho(ClientIdentity identity) {
         Map<String, Object> response = new HashMap<>();
         
-        X509Certificate[] certs = (X509Certificate[]) request.getAttribute("jakarta.servlet.request.X509Certificate");
-        
-        if (certs != null && certs.length > 0) {
-            X509Certificate clientCert = certs[0];
+        if (identity != null) {
             response.put("mtlsVerified", true);
-            response.put("clientCN", extractCN(clientCert.getSubjectX500Principal().getName()));
-            response.put("issuer", clientCert.getIssuerX500Principal().getName());
-            response.put("validFrom", clientCert.getNotBefore().toString());
-            response.put("validTo", clientCert.getNotAfter().toString());
+            response.put("clientCN", identity.commonName());
+            response.put("issuer", identity.issuer());
+            response.put("validFrom", Date.from(identity.validFrom()).toString());
+            response.put("validTo", Date.from(identity.validTo()).toString());
+            response.put("fingerprint", identity.fingerprint());
         } else {
             response.put("mtlsVerified", false);
             response.put("error", "No client certificate provided");
@@ -88,13 +128,12 @@ public class MiddlewareController {
         return ResponseEntity.ok(response);
     }
 
-    private String extractCN(String dn) {
-        for (String part : dn.split(",")) {
-            String trimmed = part.trim();
-            if (trimmed.startsWith("CN=")) {
-                return trimmed.substring(3);
-            }
-        }
-        return dn;
+    private static Timer forwardTimer(MeterRegistry meterRegistry, boolean batch) {
+        return Timer.builder("middleware.forward")
+                .description("Time middleware spends on a forward call, including the backend round trip")
+                .tag("mode", "typed")
+                .tag("batch", String.valueOf(batch))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,137 @@
+package com.netflix.oss.middleware.controller;
+
+import com.netflix.oss.common.logging.PayloadSampler;
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
+import com.netflix.oss.middleware.security.ClientIdentity;
+import com.netflix.oss.middleware.service.ReactiveBackendService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// MiddlewareController for the reactive runtime, same endpoints and responses
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/mw")
+public class ReactiveMiddlewareController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveMiddlewareController.class);
+
+    private final ReactiveBackendService backendService;
+    private final PayloadSampler payloadSampler;
+    private final Timer forwardTimer;
+    private final Timer forwardBatchTimer;
+
+    public ReactiveMiddlewareController(ReactiveBackendService backendService, PayloadSampler payloadSampler,
+                                        MeterRegistry meterRegistry) {
+        this.backendService = backendService;
+        this.payloadSampler = payloadSampler;
+        this.forwardTimer = forwardTimer(meterRegistry, false);
+        this.forwardBatchTimer = forwardTimer(meterRegistry, true);
+    }
+
+    @PostMapping("/forward")
+    public Mono<ResponseEntity<UserResponse>> forward(
+            @RequestBody UserRequest payload,
+            ClientIdentity identity) {
+        
+        long start = System.nanoTime();
+        logger.debug("Middleware received request");
+        payloadSampler.atInfo(logger, "forward").log("Middleware forwarding request: {}", payload);
+        
+        // Client certificate is validated on the handshake and its identity cached per certificate
+        boolean mtlsVerified = identity != null;
+        String clientCN = mtlsVerified ? identity.commonName() : "unknown";
+        
+        if (mtlsVerified) {
+            logger.debug("mTLS verified! Client CN: {}", clientCN);
+        } else {
+            logger.warn("No client certificate provided");
+        }
+        
+        // Forward to backend
+        return backendService.callBackend(payload).map(backendResponse -> {
+            forwardTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return ResponseEntity.ok(backendResponse.withMtls(mtlsVerified, clientCN));
+        });
+    }
+
+    @PostMapping("/forward-batch")
+    public Mono<ResponseEntity<List<UserResponse>>> forwardBatch(
+            @RequestBody List<UserRequest> payloads,
+            ClientIdentity identity) {
+        
+        long start = System.nanoTime();
+        logger.debug("Middleware received batch of {} requests", payloads.size());
+        payloadSampler.atInfo(logger, "forward-batch").log("Middleware forwarding batch: {}", payloads);
+        
+        boolean mtlsVerified = identity != null;
+        String clientCN = mtlsVerified ? identity.commonName() : "unknown";
+        
+        if (mtlsVerified) {
+            logger.debug("mTLS verified! Client CN: {}", clientCN);
+        } else {
+            logger.warn("No client certificate provided");
+        }
+        
+        // Forward the whole batch to backend in a single round trip
+        return backendService.callBackendBatch(payloads).map(backendResponses -> {
+            List<UserResponse> responses = new ArrayList<>(backendResponses.size());
+            for (UserResponse backendResponse : backendResponses) {
+                responses.add(backendResponse.withMtls(mtlsVerified, clientCN));
+            }
+            
+            forwardBatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return ResponseEntity.ok(responses);
+        });
+    }
+
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, String>> health() {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "UP");
+        response.put("service", "middleware");
+        response.put("ssl", "enabled");
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/secure-echo")
+    public ResponseEntity<Map<String, Object>> secureEcho(ClientIdentity identity) {
+        Map<String, Object> response = new HashMap<>();
+        
+        if (identity != null) {
+            response.put("mtlsVerified", true);
+            response.put("clientCN", identity.commonName());
+            response.put("issuer", identity.issuer());
+            response.put("validFrom", Date.from(identity.validFrom()).toString());
+            response.put("validTo", Date.from(identity.validTo()).toString());
+            response.put("fingerprint", identity.fingerprint());
+        } else {
+            response.put("mtlsVerified", false);
+            response.put("error", "No client certificate provided");
+        }
+        
+        return ResponseEntity.ok(response);
+    }
+
+    private static Timer forwardTimer(MeterRegistry meterRegistry, boolean batch) {
+        return Timer.builder("middleware.forward")
+                .description("Time middleware spends on a forward call, including the backend round trip")
+                .tag("mode", "typed")
+                .tag("batch", String.valueOf(batch))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
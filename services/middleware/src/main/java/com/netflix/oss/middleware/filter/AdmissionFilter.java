@@ -0,0 +1,56 @@
+package com.netflix.oss.middleware.filter;
+
+import com.netflix.oss.common.wire.ForwardHeaders;
+import com.netflix.oss.middleware.admission.ForwardAdmission;
+import com.netflix.oss.middleware.admission.Priority;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Admits forward calls through ForwardAdmission. Rejections are a bare 503 with Retry-After, set
+// directly on the response rather than through sendError, so shedding costs no error dispatch,
+// no body and no backend call.
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    private final ForwardAdmission admission;
+
+    public AdmissionFilter(ForwardAdmission admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = Priority.parse(request.getHeader(ForwardHeaders.PRIORITY));
+        ForwardAdmission.Outcome outcome;
+        try {
+            outcome = admission.acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = ForwardAdmission.Outcome.SATURATED;
+        }
+
+        if (outcome != ForwardAdmission.Outcome.ADMITTED) {
+            logger.debug("Rejected {} priority forward: {}", priority, outcome);
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentLength(0);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admission.release();
+        }
+    }
+}
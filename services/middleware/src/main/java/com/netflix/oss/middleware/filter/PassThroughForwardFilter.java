@@ -0,0 +1,87 @@
+package com.netflix.oss.middleware.filter;
+
+import com.netflix.oss.common.wire.ForwardHeaders;
+import com.netflix.oss.middleware.security.ClientIdentity;
+import com.netflix.oss.middleware.security.ClientIdentityResolver;
+import com.netflix.oss.middleware.service.BackendService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Serves POST /api/mw/forward and /api/mw/forward-batch without going through MiddlewareController:
+// the payload is streamed to backend as bytes and the mTLS result travels as response headers.
+// Registered only when middleware.forward.mode=pass-through.
+public class PassThroughForwardFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassThroughForwardFilter.class);
+
+    private static final Map<String, String> BACKEND_PATHS = Map.of(
+            "/api/mw/forward", "/api/backend/process",
+            "/api/mw/forward-batch", "/api/backend/process-batch");
+
+    private final BackendService backendService;
+    private final ClientIdentityResolver clientIdentityResolver;
+    private final Map<String, Timer> forwardTimers;
+
+    public PassThroughForwardFilter(BackendService backendService, ClientIdentityResolver clientIdentityResolver,
+                                    MeterRegistry meterRegistry) {
+        this.backendService = backendService;
+        this.clientIdentityResolver = clientIdentityResolver;
+        this.forwardTimers = Map.of(
+                "/api/mw/forward", forwardTimer(meterRegistry, false),
+                "/api/mw/forward-batch", forwardTimer(meterRegistry, true));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !BACKEND_PATHS.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        logger.debug("Middleware streaming request to backend");
+        
+        ClientIdentity identity = clientIdentityResolver.resolve(request);
+        
+        boolean mtlsVerified = false;
+        String clientCN = "unknown";
+        
+        if (identity != null) {
+            clientCN = identity.commonName();
+            mtlsVerified = true;
+            logger.debug("mTLS verified! Client CN: {}", clientCN);
+        } else {
+            logger.warn("No client certificate provided");
+        }
+        
+        HttpHeaders mtlsHeaders = new HttpHeaders();
+        mtlsHeaders.set(ForwardHeaders.MTLS_VERIFIED, String.valueOf(mtlsVerified));
+        mtlsHeaders.set(ForwardHeaders.CLIENT_CN, clientCN);
+        mtlsHeaders.set(ForwardHeaders.MIDDLEWARE_PROCESSED, "true");
+        
+        backendService.streamToBackend(BACKEND_PATHS.get(request.getRequestURI()), request, response, mtlsHeaders);
+        forwardTimers.get(request.getRequestURI()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer forwardTimer(MeterRegistry meterRegistry, boolean batch) {
+        return Timer.builder("middleware.forward")
+                .description("Time middleware spends on a forward call, including the backend round trip")
+                .tag("mode", "pass-through")
+                .tag("batch", String.valueOf(batch))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.netflix.oss.middleware.filter;
+
+import com.netflix.oss.common.wire.ForwardHeaders;
+import com.netflix.oss.middleware.admission.ForwardAdmission;
+import com.netflix.oss.middleware.admission.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// AdmissionFilter for the reactive runtime. Permits that are free, and rejections, are decided on
+// the event loop; only a forward that has to wait for a permit moves to a bounded elastic thread
+// for at most max-queue-wait. The permit is held until the response completes or is cancelled,
+// including a cancel that arrives while the forward is still waiting.
+public class ReactiveAdmissionFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAdmissionFilter.class);
+
+    private static final Set<String> FORWARD_PATHS = Set.of("/api/mw/forward", "/api/mw/forward-batch");
+
+    private final ForwardAdmission admission;
+
+    public ReactiveAdmissionFilter(ForwardAdmission admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!FORWARD_PATHS.contains(exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+
+        Priority priority = Priority.parse(exchange.getRequest().getHeaders().getFirst(ForwardHeaders.PRIORITY));
+        ForwardAdmission.Outcome outcome = admission.tryAcquire(priority);
+        if (outcome != null) {
+            return admitted(exchange, chain, priority, outcome);
+        }
+        // A client that goes away while the forward waits cancels the exchange, but await goes on
+        // and may still take the permit. Whichever of the two comes first settles the wait: a
+        // permit taken after the cancel is given back here, and one that was handed over as the
+        // cancel arrived is discarded by the sink and given back by doOnDiscard
+        return Mono.<ForwardAdmission.Outcome>create(sink -> {
+                    AtomicBoolean settled = new AtomicBoolean();
+                    sink.onCancel(() -> settled.set(true));
+                    Schedulers.boundedElastic().schedule(() -> {
+                        try {
+                            ForwardAdmission.Outcome awaited = admission.await(priority);
+                            if (settled.compareAndSet(false, true)) {
+                                sink.success(awaited);
+                            } else if (awaited == ForwardAdmission.Outcome.ADMITTED) {
+                                admission.release();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            sink.error(e);
+                        }
+                    });
+                })
+                .flatMap(awaited -> admitted(exchange, chain, priority, awaited))
+                .doOnDiscard(ForwardAdmission.Outcome.class, discarded -> {
+                    if (discarded == ForwardAdmission.Outcome.ADMITTED) {
+                        admission.release();
+                    }
+                });
+    }
+
+    private Mono<Void> admitted(ServerWebExchange exchange, WebFilterChain chain, Priority priority,
+                                ForwardAdmission.Outcome outcome) {
+        if (outcome != ForwardAdmission.Outcome.ADMITTED) {
+            logger.debug("Rejected {} priority forward: {}", priority, outcome);
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            response.getHeaders().setContentLength(0);
+            return response.setComplete();
+        }
+        return chain.filter(exchange).doFinally(signal -> admission.release());
+    }
+}
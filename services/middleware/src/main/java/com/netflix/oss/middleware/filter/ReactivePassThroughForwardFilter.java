@@ -0,0 +1,87 @@
+package com.netflix.oss.middleware.filter;
+
+import com.netflix.oss.common.wire.ForwardHeaders;
+import com.netflix.oss.middleware.security.ClientIdentity;
+import com.netflix.oss.middleware.security.ClientIdentityResolver;
+import com.netflix.oss.middleware.service.ReactiveBackendService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// PassThroughForwardFilter for the reactive runtime: request and response bodies flow between the
+// two connections as Netty buffers, with backpressure in both directions
+public class ReactivePassThroughForwardFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePassThroughForwardFilter.class);
+
+    private static final Map<String, String> BACKEND_PATHS = Map.of(
+            "/api/mw/forward", "/api/backend/process",
+            "/api/mw/forward-batch", "/api/backend/process-batch");
+
+    private final ReactiveBackendService backendService;
+    private final ClientIdentityResolver clientIdentityResolver;
+    private final Map<String, Timer> forwardTimers;
+
+    public ReactivePassThroughForwardFilter(ReactiveBackendService backendService,
+                                            ClientIdentityResolver clientIdentityResolver,
+                                            MeterRegistry meterRegistry) {
+        this.backendService = backendService;
+        this.clientIdentityResolver = clientIdentityResolver;
+        this.forwardTimers = Map.of(
+                "/api/mw/forward", forwardTimer(meterRegistry, false),
+                "/api/mw/forward-batch", forwardTimer(meterRegistry, true));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (!HttpMethod.POST.equals(request.getMethod()) || !BACKEND_PATHS.containsKey(path)) {
+            return chain.filter(exchange);
+        }
+
+        long start = System.nanoTime();
+        logger.debug("Middleware streaming request to backend");
+        
+        ClientIdentity identity = clientIdentityResolver.resolve(request.getSslInfo());
+        
+        boolean mtlsVerified = false;
+        String clientCN = "unknown";
+        
+        if (identity != null) {
+            clientCN = identity.commonName();
+            mtlsVerified = true;
+            logger.debug("mTLS verified! Client CN: {}", clientCN);
+        } else {
+            logger.warn("No client certificate provided");
+        }
+        
+        HttpHeaders mtlsHeaders = new HttpHeaders();
+        mtlsHeaders.set(ForwardHeaders.MTLS_VERIFIED, String.valueOf(mtlsVerified));
+        mtlsHeaders.set(ForwardHeaders.CLIENT_CN, clientCN);
+        mtlsHeaders.set(ForwardHeaders.MIDDLEWARE_PROCESSED, "true");
+        
+        return backendService.streamToBackend(BACKEND_PATHS.get(path), exchange, mtlsHeaders)
+                .doOnTerminate(() -> forwardTimers.get(path).record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private static Timer forwardTimer(MeterRegistry meterRegistry, boolean batch) {
+        return Timer.builder("middleware.forward")
+                .description("Time middleware spends on a forward call, including the backend round trip")
+                .tag("mode", "pass-through")
+                .tag("batch", String.valueOf(batch))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
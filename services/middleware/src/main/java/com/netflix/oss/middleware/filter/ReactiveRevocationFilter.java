@@ -0,0 +1,37 @@
+package com.netflix.oss.middleware.filter;
+
+import com.netflix.oss.middleware.security.ClientIdentity;
+import com.netflix.oss.middleware.security.ClientIdentityResolver;
+import com.netflix.oss.middleware.security.RevocationIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// RevocationFilter for the reactive runtime, checked per request for the same reason
+public class ReactiveRevocationFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRevocationFilter.class);
+
+    private final ClientIdentityResolver clientIdentityResolver;
+    private final RevocationIndex revocationIndex;
+
+    public ReactiveRevocationFilter(ClientIdentityResolver clientIdentityResolver, RevocationIndex revocationIndex) {
+        this.clientIdentityResolver = clientIdentityResolver;
+        this.revocationIndex = revocationIndex;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ClientIdentity identity = clientIdentityResolver.resolve(exchange.getRequest().getSslInfo());
+        if (identity != null && revocationIndex.isRevoked(identity)) {
+            logger.warn("Rejected revoked client certificate: CN={}, serial={}", identity.commonName(), identity.serialNumber().toString(16));
+            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Client certificate revoked"));
+        }
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,28 @@
+package com.netflix.oss.middleware.filter;
+
+import com.netflix.oss.common.request.RequestId;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+// Reactive counterpart of RequestIdFilter. The ID goes into the Reactor context, from where
+// handlers pass it on and context propagation puts it in the MDC of log lines written from
+// operators.
+public class RequestIdWebFilter implements WebFilter {
+
+    // Request ID of the request the context belongs to, or null outside a request
+    public static String requestId(ContextView context) {
+        return context.getOrDefault(RequestId.MDC_KEY, null);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String received = exchange.getRequest().getHeaders().getFirst(RequestId.HEADER);
+        String id = RequestId.isValid(received) ? received : RequestId.next();
+        exchange.getResponse().getHeaders().set(RequestId.HEADER, id);
+        return chain.filter(exchange).contextWrite(Context.of(RequestId.MDC_KEY, id));
+    }
+}
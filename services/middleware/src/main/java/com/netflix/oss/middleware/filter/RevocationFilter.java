@@ -0,0 +1,41 @@
+package com.netflix.oss.middleware.filter;
+
+import com.netflix.oss.middleware.security.ClientIdentity;
+import com.netflix.oss.middleware.security.ClientIdentityResolver;
+import com.netflix.oss.middleware.security.RevocationIndex;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Rejects requests whose client certificate is on the local revocation list. Checked per request
+// rather than per handshake so that a CRL reload also cuts off already established sessions.
+public class RevocationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationFilter.class);
+
+    private final ClientIdentityResolver clientIdentityResolver;
+    private final RevocationIndex revocationIndex;
+
+    public RevocationFilter(ClientIdentityResolver clientIdentityResolver, RevocationIndex revocationIndex) {
+        this.clientIdentityResolver = clientIdentityResolver;
+        this.revocationIndex = revocationIndex;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ClientIdentity identity = clientIdentityResolver.resolve(request);
+        if (identity != null && revocationIndex.isRevoked(identity)) {
+            logger.warn("Rejected revoked client certificate: CN={}, serial={}", identity.commonName(), identity.serialNumber().toString(16));
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Client certificate revoked");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,50 @@
+package com.netflix.oss.middleware.filter;
+
+import com.netflix.oss.common.timing.ServerTiming;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Reactive counterpart of ServerTimingFilter. There is no request thread to bind ServerTiming to,
+// so handlers find the entries of their request in the Reactor context instead; the hop's own
+// entry is put in front of them when the response commits.
+public class ServerTimingWebFilter implements WebFilter {
+
+    private static final String ENTRIES = ServerTimingWebFilter.class.getName() + ".entries";
+
+    private final String hop;
+
+    public ServerTimingWebFilter(String hop) {
+        this.hop = hop;
+    }
+
+    // Server-Timing entries of the request the context belongs to, or null outside a request
+    public static Queue<String> entries(ContextView context) {
+        return context.getOrDefault(ENTRIES, null);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        Queue<String> entries = new ConcurrentLinkedQueue<>();
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            HttpHeaders headers = response.getHeaders();
+            StringBuilder value = new StringBuilder(ServerTiming.entry(hop, System.nanoTime() - start));
+            for (String entry : entries) {
+                value.append(", ").append(entry);
+            }
+            headers.set(ServerTiming.HEADER, value.toString());
+            return Mono.empty();
+        });
+        return chain.filter(exchange).contextWrite(Context.of(ENTRIES, entries));
+    }
+}
@@ -0,0 +1,15 @@
+package com.netflix.oss.middleware.security;
+
+import java.math.BigInteger;
+import java.time.Instant;
+
+// Verified client identity parsed once per client certificate
+public record ClientIdentity(
+        String commonName,
+        String subject,
+        String issuer,
+        BigInteger serialNumber,
+        Instant validFrom,
+        Instant validTo,
+        String fingerprint) {
+}
@@ -0,0 +1,29 @@
+package com.netflix.oss.middleware.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// Injects the caller's ClientIdentity (null without a client certificate) into handler methods
+public class ClientIdentityArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final ClientIdentityResolver clientIdentityResolver;
+
+    public ClientIdentityArgumentResolver(ClientIdentityResolver clientIdentityResolver) {
+        this.clientIdentityResolver = clientIdentityResolver;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return ClientIdentity.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return clientIdentityResolver.resolve(webRequest.getNativeRequest(HttpServletRequest.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.netflix.oss.middleware.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.SslInfo;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.HexFormat;
+
+// Resolves the client identity of an mTLS request. The parsed identity is cached by the client's
+// leaf certificate and reused by every request that presents it, instead of re-parsing the X.500
+// names each time. Certificates compare by their encoded form, so two clients never share an
+// entry. The TLS session id is not a usable key: with TLS 1.3 it can be empty or shared between
+// connections of different clients.
+@Component
+public class ClientIdentityResolver {
+
+    private static final String CERTIFICATE_ATTRIBUTE = "jakarta.servlet.request.X509Certificate";
+
+    private final Cache<X509Certificate, ClientIdentity> identities;
+
+    public ClientIdentityResolver(
+            @Value("${middleware.client-identity.cache.max-size:10000}") long maxSize,
+            @Value("${middleware.client-identity.cache.expire-after-access:10m}") Duration expireAfterAccess,
+            MeterRegistry meterRegistry) {
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, "clientIdentity");
+    }
+
+    // Identity of the presented client certificate, or null when none was presented
+    public ClientIdentity resolve(HttpServletRequest request) {
+        return resolve((X509Certificate[]) request.getAttribute(CERTIFICATE_ATTRIBUTE));
+    }
+
+    // The same for the reactive runtime, where Netty exposes the peer certificates of the connection
+    public ClientIdentity resolve(SslInfo sslInfo) {
+        return sslInfo != null ? resolve(sslInfo.getPeerCertificates()) : null;
+    }
+
+    private ClientIdentity resolve(X509Certificate[] certs) {
+        if (certs == null || certs.length == 0) {
+            return null;
+        }
+        return identities.get(certs[0], ClientIdentityResolver::parse);
+    }
+
+    private static ClientIdentity parse(X509Certificate cert) {
+        String subject = cert.getSubjectX500Principal().getName();
+        return new ClientIdentity(
+                extractCN(subject),
+                subject,
+                cert.getIssuerX500Principal().getName(),
+                cert.getSerialNumber(),
+                cert.getNotBefore().toInstant(),
+                cert.getNotAfter().toInstant(),
+                fingerprint(cert));
+    }
+
+    private static String fingerprint(X509Certificate cert) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cert.getEncoded()));
+        } catch (NoSuchAlgorithmException | CertificateEncodingException e) {
+            throw new IllegalStateException("Cannot fingerprint client certificate", e);
+        }
+    }
+
+    private static String extractCN(String dn) {
+        for (String part : dn.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.startsWith("CN=")) {
+                return trimmed.substring(3);
+            }
+        }
+        return dn;
+    }
+}
@@ -0,0 +1,63 @@
+package com.netflix.oss.middleware.security;
+
+// Open-addressing set of primitive longs with linear probing, kept at most half full.
+// Built once per revocation reload and only read afterwards, so it needs no synchronisation
+// as long as it is published safely.
+final class LongHashSet {
+
+    private static final long EMPTY = 0L;
+
+    private final long[] slots;
+    private final int mask;
+    private boolean containsEmpty;
+    private int size;
+
+    LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    void add(long value) {
+        if (value == EMPTY) {
+            if (!containsEmpty) {
+                containsEmpty = true;
+                size++;
+            }
+            return;
+        }
+        int index = index(value);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        size++;
+    }
+
+    boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int index = index(value);
+        long slot;
+        while ((slot = slots[index]) != EMPTY) {
+            if (slot == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int index(long value) {
+        // Fibonacci hashing spreads sequential serial numbers across the table
+        return (int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
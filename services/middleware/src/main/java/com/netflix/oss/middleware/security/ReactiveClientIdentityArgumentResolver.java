@@ -0,0 +1,28 @@
+package com.netflix.oss.middleware.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.SyncHandlerMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+
+// ClientIdentityArgumentResolver for the reactive runtime. The certificate is read from the SSL
+// info of the connection, and ClientIdentityResolver caches the identity by that certificate
+public class ReactiveClientIdentityArgumentResolver implements SyncHandlerMethodArgumentResolver {
+
+    private final ClientIdentityResolver clientIdentityResolver;
+
+    public ReactiveClientIdentityArgumentResolver(ClientIdentityResolver clientIdentityResolver) {
+        this.clientIdentityResolver = clientIdentityResolver;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return ClientIdentity.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgumentValue(MethodParameter parameter, BindingContext bindingContext,
+                                       ServerWebExchange exchange) {
+        return clientIdentityResolver.resolve(exchange.getRequest().getSslInfo());
+    }
+}
@@ -0,0 +1,195 @@
+package com.netflix.oss.middleware.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.cert.CRL;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Revoked client certificates loaded from the CRL files (DER or PEM) in a local directory.
+// Each CRL must be signed by a CA in the server truststore. Lookups hit a primitive hash set of
+// (issuer, serial) keys and only fall through to the exact set on a match, so the common
+// not-revoked case costs one probe. The directory is polled and reloaded when its files change;
+// a failed reload keeps the previous list.
+public class RevocationIndex implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationIndex.class);
+
+    private final Path crlDir;
+    private final List<X509Certificate> trustedIssuers;
+    private final Timer reloadTimer;
+    private final Counter reloadFailures;
+    private final Counter revokedLookups;
+    private final Counter cleanLookups;
+    private final ScheduledExecutorService reloader;
+
+    private volatile Snapshot snapshot = new Snapshot(new LongHashSet(0), Set.of());
+    private String loadedState;
+
+    public RevocationIndex(Path crlDir, Duration reloadInterval, List<X509Certificate> trustedIssuers,
+                           MeterRegistry meterRegistry) {
+        this.crlDir = crlDir;
+        this.trustedIssuers = trustedIssuers;
+        this.reloadTimer = Timer.builder("revocation.reload")
+                .description("Time to parse and index the CRL directory")
+                .register(meterRegistry);
+        this.reloadFailures = Counter.builder("revocation.reload.failures")
+                .description("CRL reloads rejected, the previous revocation list stays in use")
+                .register(meterRegistry);
+        this.revokedLookups = Counter.builder("revocation.lookups")
+                .tag("result", "revoked")
+                .register(meterRegistry);
+        this.cleanLookups = Counter.builder("revocation.lookups")
+                .tag("result", "clean")
+                .register(meterRegistry);
+        Gauge.builder("revocation.entries", this, index -> index.snapshot.entries().size())
+                .description("Revoked certificates currently indexed")
+                .register(meterRegistry);
+
+        // The first load must succeed so the service never starts without its revocation list
+        try {
+            reload(directoryState());
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load CRLs from " + crlDir, e);
+        }
+
+        this.reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crl-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = reloadInterval.toMillis();
+        reloader.scheduleWithFixedDelay(this::reloadIfChanged, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isRevoked(ClientIdentity identity) {
+        Snapshot current = snapshot;
+        boolean revoked = current.keys().contains(key(identity.issuer(), identity.serialNumber()))
+                && current.entries().contains(new RevokedCertificate(identity.issuer(), identity.serialNumber()));
+        (revoked ? revokedLookups : cleanLookups).increment();
+        return revoked;
+    }
+
+    @Override
+    public void close() {
+        reloader.shutdownNow();
+    }
+
+    void reloadIfChanged() {
+        try {
+            String state = directoryState();
+            if (!state.equals(loadedState)) {
+                reload(state);
+            }
+        } catch (Exception e) {
+            reloadFailures.increment();
+            logger.error("Failed to reload CRLs from {}, keeping the previous revocation list: {}", crlDir, e.getMessage(), e);
+        }
+    }
+
+    private void reload(String state) throws IOException, GeneralSecurityException {
+        long start = System.nanoTime();
+        List<Path> files = crlFiles();
+
+        Set<RevokedCertificate> entries = new HashSet<>();
+        CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+        for (Path file : files) {
+            Collection<? extends CRL> crls;
+            try (InputStream in = Files.newInputStream(file)) {
+                crls = certificateFactory.generateCRLs(in);
+            }
+            for (CRL crl : crls) {
+                addEntries((X509CRL) crl, file, entries);
+            }
+        }
+
+        LongHashSet keys = new LongHashSet(entries.size());
+        for (RevokedCertificate entry : entries) {
+            keys.add(key(entry.issuer(), entry.serialNumber()));
+        }
+        snapshot = new Snapshot(keys, Set.copyOf(entries));
+        loadedState = state;
+
+        long elapsed = System.nanoTime() - start;
+        reloadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Loaded {} revoked certificates from {} CRL files in {} ms",
+                entries.size(), files.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void addEntries(X509CRL crl, Path file, Set<RevokedCertificate> entries) throws GeneralSecurityException {
+        X509Certificate issuer = trustedIssuers.stream()
+                .filter(candidate -> candidate.getSubjectX500Principal().equals(crl.getIssuerX500Principal()))
+                .findFirst()
+                .orElseThrow(() -> new GeneralSecurityException(
+                        "CRL " + file + " is issued by " + crl.getIssuerX500Principal().getName() + " which is not in the truststore"));
+        crl.verify(issuer.getPublicKey());
+
+        if (crl.getNextUpdate() != null && crl.getNextUpdate().getTime() < System.currentTimeMillis()) {
+            logger.warn("CRL {} from {} is past its next update time {}", file, issuer.getSubjectX500Principal().getName(), crl.getNextUpdate());
+        }
+
+        Set<? extends X509CRLEntry> revoked = crl.getRevokedCertificates();
+        if (revoked == null) {
+            return;
+        }
+        String crlIssuer = crl.getIssuerX500Principal().getName();
+        for (X509CRLEntry entry : revoked) {
+            // Indirect CRLs name the certificate issuer on the entry itself
+            String certificateIssuer = entry.getCertificateIssuer() != null
+                    ? entry.getCertificateIssuer().getName()
+                    : crlIssuer;
+            entries.add(new RevokedCertificate(certificateIssuer, entry.getSerialNumber()));
+        }
+    }
+
+    private List<Path> crlFiles() throws IOException {
+        if (!Files.isDirectory(crlDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(crlDir)) {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+
+    // Names, sizes and modification times of the CRL files; a reload runs only when this changes
+    private String directoryState() throws IOException {
+        List<String> parts = new ArrayList<>();
+        for (Path file : crlFiles()) {
+            parts.add(file.getFileName() + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis());
+        }
+        return String.join(",", parts);
+    }
+
+    private static long key(String issuer, BigInteger serialNumber) {
+        return ((long) issuer.hashCode() << 32) ^ serialNumber.longValue();
+    }
+
+    private record RevokedCertificate(String issuer, BigInteger serialNumber) {
+    }
+
+    private record Snapshot(LongHashSet keys, Set<RevokedCertificate> entries) {
+    }
+}
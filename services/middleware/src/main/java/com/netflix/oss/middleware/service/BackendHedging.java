@@ -0,0 +1,243 @@
+package com.netflix.oss.middleware.service;
+
+import com.netflix.oss.common.request.RequestId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+// Runs a backend call on the instance the selector picks and, when enabled, sends the same call
+// to a second instance if the first has not answered within the recent p95 of backend calls.
+// Whichever succeeds first wins; the other finishes in the background and is discarded.
+// Hedges are paid for from a budget that grows by max-ratio per call, so at most that share of
+// extra load reaches backend even when every call is slow.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BackendHedging implements DisposableBean {
+
+    private static final int SAMPLES = 1024;
+    private static final int MIN_SAMPLES = 100;
+    private static final long RECOMPUTE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    // Budget in thousandths of a hedge, capped at ten hedges in reserve
+    private static final long BUDGET_UNIT = 1000;
+    private static final long MAX_BUDGET = 10 * BUDGET_UNIT;
+
+    private final BackendInstanceSelector instanceSelector;
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long budgetPerCall;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+    private final AtomicLong sampleCount = new AtomicLong();
+    private final AtomicLong nextRecompute = new AtomicLong();
+    private final AtomicLong budget = new AtomicLong();
+    private volatile long delayNanos = -1;
+
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    public BackendHedging(
+            BackendInstanceSelector instanceSelector,
+            @Value("${backend.hedging.enabled:false}") boolean enabled,
+            @Value("${backend.hedging.percentile:0.95}") double percentile,
+            @Value("${backend.hedging.min-delay:5ms}") Duration minDelay,
+            @Value("${backend.hedging.max-delay:1s}") Duration maxDelay,
+            @Value("${backend.hedging.max-ratio:0.1}") double maxRatio,
+            @Value("${backend.http.pool.max-total:200}") int maxConcurrentCalls,
+            MeterRegistry meterRegistry) {
+        this.instanceSelector = instanceSelector;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.budgetPerCall = Math.round(maxRatio * BUDGET_UNIT);
+
+        // Attempts run here so the request thread can wait with a deadline; when it is full the
+        // call runs on the request thread without a hedge
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxConcurrentCalls, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "backend-hedge-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.hedgesSent = Counter.builder("backend.hedges")
+                .description("Backend calls that were sent to a second instance")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("backend.hedges")
+                .description("Backend calls that were sent to a second instance")
+                .tag("result", "won")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Runs call against one or two backend instances and returns the first successful result, or
+    // throws the failure of the last attempt
+    public <T> T execute(Function<BackendInstanceSelector.Instance, T> call) {
+        BackendInstanceSelector.Instance primary = instanceSelector.choose();
+        long delay = delayNanos;
+        if (!enabled || delay < 0) {
+            return attempt(primary, call);
+        }
+        budget.getAndUpdate(current -> Math.min(MAX_BUDGET, current + budgetPerCall));
+        String requestId = RequestId.current();
+
+        CompletableFuture<T> first;
+        try {
+            first = CompletableFuture.supplyAsync(() -> attempt(requestId, primary, call), executor);
+        } catch (RejectedExecutionException e) {
+            return attempt(primary, call);
+        }
+
+        try {
+            return first.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Fall through to the hedge
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for backend", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        BackendInstanceSelector.Instance secondary = instanceSelector.chooseOther(primary);
+        if (secondary == null || !takeBudget()) {
+            return join(first);
+        }
+        CompletableFuture<T> second;
+        try {
+            second = CompletableFuture.supplyAsync(() -> attempt(requestId, secondary, call), executor);
+        } catch (RejectedExecutionException e) {
+            budget.addAndGet(BUDGET_UNIT);
+            return join(first);
+        }
+        hedgesSent.increment();
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        first.whenComplete((result, error) -> settle(winner, result, error, failures));
+        second.whenComplete((result, error) -> {
+            if (error == null && !winner.isDone()) {
+                hedgesWon.increment();
+            }
+            settle(winner, result, error, failures);
+        });
+        return join(winner);
+    }
+
+    private <T> T attempt(BackendInstanceSelector.Instance instance, Function<BackendInstanceSelector.Instance, T> call) {
+        long start = instance.start();
+        boolean success = false;
+        try {
+            T result = call.apply(instance);
+            success = true;
+            return result;
+        } finally {
+            instance.complete(start, success);
+            if (success && enabled) {
+                record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // On a hedge thread, logging under the request ID of the request that made the call
+    private <T> T attempt(String requestId, BackendInstanceSelector.Instance instance,
+                          Function<BackendInstanceSelector.Instance, T> call) {
+        if (requestId != null) {
+            MDC.put(RequestId.MDC_KEY, requestId);
+        }
+        try {
+            return attempt(instance, call);
+        } finally {
+            MDC.remove(RequestId.MDC_KEY);
+        }
+    }
+
+    private static <T> void settle(CompletableFuture<T> winner, T result, Throwable error, AtomicInteger failures) {
+        if (error == null) {
+            winner.complete(result);
+        } else if (failures.incrementAndGet() == 2) {
+            winner.completeExceptionally(error);
+        }
+    }
+
+    private boolean takeBudget() {
+        while (true) {
+            long current = budget.get();
+            if (current < BUDGET_UNIT) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - BUDGET_UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    private void record(long nanos) {
+        long count = sampleCount.getAndIncrement();
+        samples.set((int) (count % SAMPLES), nanos);
+
+        long now = System.nanoTime();
+        long next = nextRecompute.get();
+        if (count + 1 >= MIN_SAMPLES && now - next >= 0 && nextRecompute.compareAndSet(next, now + RECOMPUTE_NANOS)) {
+            int size = (int) Math.min(count + 1, SAMPLES);
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            long value = sorted[Math.min(size - 1, (int) (size * percentile))];
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for backend", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
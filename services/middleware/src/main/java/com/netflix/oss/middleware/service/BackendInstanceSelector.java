@@ -0,0 +1,134 @@
+package com.netflix.oss.middleware.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Picks a backend instance from the Eureka registry using power-of-two-choices over a
+// peak-sensitive, time-decayed EWMA of each instance's latency weighted by its in-flight calls.
+// Falls back to backend.url when discovery has no instances (e.g. Eureka disabled or not yet fetched).
+@Component
+public class BackendInstanceSelector {
+
+    private final DiscoveryClient discoveryClient;
+    private final String serviceId;
+    private final long decayNanos;
+    private final long errorPenaltyNanos;
+    private final Instance fallback;
+    private final ConcurrentMap<String, Instance> instances = new ConcurrentHashMap<>();
+
+    public BackendInstanceSelector(
+            DiscoveryClient discoveryClient,
+            @Value("${backend.service-id:backend}") String serviceId,
+            @Value("${backend.url}") String fallbackUrl,
+            @Value("${backend.load-balancer.decay:10s}") Duration decay,
+            @Value("${backend.load-balancer.error-penalty:1s}") Duration errorPenalty) {
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.decayNanos = decay.toNanos();
+        this.errorPenaltyNanos = errorPenalty.toNanos();
+        this.fallback = new Instance(fallbackUrl);
+    }
+
+    public Instance choose() {
+        List<ServiceInstance> candidates = discoveryClient.getInstances(serviceId);
+        int size = candidates.size();
+        if (size == 0) {
+            return fallback;
+        }
+        if (instances.size() > 2 * size + 4) {
+            prune(candidates);
+        }
+        if (size == 1) {
+            return instance(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        Instance a = instance(candidates.get(first));
+        Instance b = instance(candidates.get(second));
+        return a.cost() <= b.cost() ? a : b;
+    }
+
+    // Cheapest registered instance other than the given one, or null when there is no other
+    public Instance chooseOther(Instance excluded) {
+        Instance best = null;
+        for (ServiceInstance candidate : discoveryClient.getInstances(serviceId)) {
+            Instance instance = instance(candidate);
+            if (instance != excluded && (best == null || instance.cost() < best.cost())) {
+                best = instance;
+            }
+        }
+        return best;
+    }
+
+    private Instance instance(ServiceInstance serviceInstance) {
+        return instances.computeIfAbsent(serviceInstance.getUri().toString(), Instance::new);
+    }
+
+    private void prune(List<ServiceInstance> candidates) {
+        Set<String> live = new HashSet<>();
+        for (ServiceInstance candidate : candidates) {
+            live.add(candidate.getUri().toString());
+        }
+        instances.keySet().retainAll(live);
+    }
+
+    public final class Instance {
+
+        private final String url;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile double ewmaNanos;
+        private long lastUpdateNanos = System.nanoTime();
+
+        private Instance(String url) {
+            this.url = url;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public long start() {
+            inFlight.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        public void complete(long startNanos, boolean success) {
+            inFlight.decrementAndGet();
+            long now = System.nanoTime();
+            long rtt = now - startNanos;
+            update(success ? rtt : Math.max(rtt, errorPenaltyNanos), now);
+        }
+
+        private synchronized void update(long rtt, long now) {
+            // Jump straight to a latency peak, decay towards lower samples over backend.load-balancer.decay
+            if (rtt > ewmaNanos) {
+                ewmaNanos = rtt;
+            } else {
+                double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + rtt * (1 - weight);
+            }
+            lastUpdateNanos = now;
+        }
+
+        private double cost() {
+            return (ewmaNanos + 1) * (inFlight.get() + 1);
+        }
+    }
+}
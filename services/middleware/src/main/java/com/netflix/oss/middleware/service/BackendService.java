@@ -1,55 +1,290 @@
 package com.netflix.oss.middleware.service;
 
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
+import com.netflix.oss.common.request.RequestId;
+import com.netflix.oss.common.timing.ServerTiming;
+import com.netflix.oss.common.wire.WireFormat;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BackendService {
 
     private static final Logger logger = LoggerFactory.getLogger(BackendService.class);
 
+    // Server-Timing entry for the backend round trip as seen from middleware
+    private static final String CALL_TIMING = "middleware.backend";
+
     private final RestTemplate restTemplate;
-    private final String backendUrl;
+    private final BackendHedging hedging;
+    private final CircuitBreaker circuitBreaker;
+    private final WireFormat wireFormat;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> errorTimers = new ConcurrentHashMap<>();
 
-    public BackendService(@Value("${backend.url}") String backendUrl) {
-        this.restTemplate = new RestTemplate();
-        this.backendUrl = backendUrl;
+    public BackendService(
+            @Qualifier("backendRestTemplate") RestTemplate restTemplate,
+            BackendHedging hedging,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            @Value("${backend.service-id:backend}") String serviceId,
+            @Value("${wire.format:json}") WireFormat wireFormat,
+            MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.hedging = hedging;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(serviceId);
+        this.wireFormat = wireFormat;
+        this.meterRegistry = meterRegistry;
     }
 
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> callBackend(Map<String, Object> payload) {
-        logger.info("Calling backend at: {}", backendUrl);
+    public UserResponse callBackend(UserRequest payload) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            logger.warn("Backend circuit {}, not calling backend", circuitBreaker.getState());
+            return UserResponse.backendError("Backend circuit open");
+        }
         
+        ServerTiming timing = ServerTiming.current();
+        String backendTiming = null;
+        long start = System.nanoTime();
+        Exception error = null;
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<UserRequest> request = new HttpEntity<>(payload, headers());
             
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
+            ResponseEntity<UserResponse> response = hedging.execute(instance -> {
+                logger.debug("Calling backend at: {}", instance.url());
+                return restTemplate.postForEntity(
+                        instance.url() + "/api/backend/process",
+                        request,
+                        UserResponse.class
+                );
+            });
             
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                    backendUrl + "/api/backend/process",
-                    request,
-                    Map.class
-            );
+            logger.debug("Backend response status: {}", response.getStatusCode());
+            backendTiming = response.getHeaders().getFirst(ServerTiming.HEADER);
+            return response.getBody();
+        } catch (Exception e) {
+            error = e;
+            logger.error("Error calling backend: {}", e.getMessage(), e);
+            return UserResponse.backendError(e.getMessage());
+        } finally {
+            recordCall("/api/backend/process", start, error, timing, backendTiming);
+        }
+    }
+
+    public List<UserResponse> callBackendBatch(List<UserRequest> payloads) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            logger.warn("Backend circuit {}, not calling backend", circuitBreaker.getState());
+            return Collections.nCopies(payloads.size(), UserResponse.backendError("Backend circuit open"));
+        }
+        
+        ServerTiming timing = ServerTiming.current();
+        String backendTiming = null;
+        long start = System.nanoTime();
+        Exception error = null;
+        try {
+            HttpEntity<List<UserRequest>> request = new HttpEntity<>(payloads, headers());
             
-            logger.info("Backend response status: {}", response.getStatusCode());
+            ResponseEntity<List<UserResponse>> response = hedging.execute(instance -> {
+                logger.debug("Calling backend at: {} with batch of {}", instance.url(), payloads.size());
+                return restTemplate.exchange(
+                        instance.url() + "/api/backend/process-batch",
+                        HttpMethod.POST,
+                        request,
+                        new ParameterizedTypeReference<List<UserResponse>>() {}
+                );
+            });
+            
+            logger.debug("Backend batch response status: {}", response.getStatusCode());
+            backendTiming = response.getHeaders().getFirst(ServerTiming.HEADER);
             return response.getBody();
         } catch (Exception e) {
+            error = e;
             logger.error("Error calling backend: {}", e.getMessage(), e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("backendError", e.getMessage());
-            errorResponse.put("servedBy", "middleware-fallback");
-            return errorResponse;
+            return Collections.nCopies(payloads.size(), UserResponse.backendError(e.getMessage()));
+        } finally {
+            recordCall("/api/backend/process-batch", start, error, timing, backendTiming);
+        }
+    }
+
+    // Pass-through forwarding: the request body is streamed to backend and the backend response is
+    // streamed back as raw bytes, so neither is decoded in middleware. Failures surface as 502, an
+    // open circuit as 503. The Server-Timing entry covers the time to the backend response headers,
+    // since it has to be sent before the body is streamed; the backend.calls timer covers the whole
+    // exchange. With hedging enabled both bodies are buffered instead, since a request may be sent
+    // twice and only the winning response may be written.
+    public void streamToBackend(String path, HttpServletRequest request, HttpServletResponse response,
+                                HttpHeaders responseHeaders) throws IOException {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            logger.warn("Backend circuit {}, not calling backend", circuitBreaker.getState());
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        
+        ServerTiming timing = ServerTiming.current();
+        String requestId = RequestId.current();
+        long start = System.nanoTime();
+        Exception error = null;
+        try {
+            if (hedging.isEnabled()) {
+                byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+                BufferedResponse buffered = hedging.execute(instance -> {
+                    logger.debug("Sending to backend at: {}", instance.url());
+                    return restTemplate.execute(
+                            instance.url() + path,
+                            HttpMethod.POST,
+                            backendRequest -> {
+                                copyRequestHeaders(request, requestId, backendRequest.getHeaders());
+                                backendRequest.getHeaders().setContentLength(body.length);
+                                StreamUtils.copy(body, backendRequest.getBody());
+                            },
+                            backendResponse -> new BufferedResponse(backendResponse.getStatusCode().value(),
+                                    backendResponse.getHeaders(), StreamUtils.copyToByteArray(backendResponse.getBody()))
+                    );
+                });
+                writeResponse(response, buffered.status(), buffered.headers(), responseHeaders, timing, start);
+                response.getOutputStream().write(buffered.body());
+            } else {
+                hedging.execute(instance -> {
+                    logger.debug("Streaming to backend at: {}", instance.url());
+                    return restTemplate.execute(
+                            instance.url() + path,
+                            HttpMethod.POST,
+                            backendRequest -> {
+                                copyRequestHeaders(request, requestId, backendRequest.getHeaders());
+                                if (request.getContentLengthLong() >= 0) {
+                                    backendRequest.getHeaders().setContentLength(request.getContentLengthLong());
+                                }
+                                if (backendRequest instanceof StreamingHttpOutputMessage streaming) {
+                                    streaming.setBody(body -> StreamUtils.copy(request.getInputStream(), body));
+                                } else {
+                                    StreamUtils.copy(request.getInputStream(), backendRequest.getBody());
+                                }
+                            },
+                            backendResponse -> {
+                                writeResponse(response, backendResponse.getStatusCode().value(),
+                                        backendResponse.getHeaders(), responseHeaders, timing, start);
+                                StreamUtils.copy(backendResponse.getBody(), response.getOutputStream());
+                                return null;
+                            }
+                    );
+                });
+            }
+        } catch (RestClientException e) {
+            error = e;
+            logger.error("Error streaming to backend: {}", e.getMessage(), e);
+            if (!response.isCommitted()) {
+                response.sendError(HttpServletResponse.SC_BAD_GATEWAY);
+            }
+        } catch (IOException e) {
+            error = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            recordOutcome(elapsed, error);
+            callTimer(path, error == null).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Runs on a hedge thread when hedging is enabled, so the request ID is captured beforehand
+    private static void copyRequestHeaders(HttpServletRequest request, String requestId, HttpHeaders headers) {
+        if (request.getContentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, request.getContentType());
         }
+        if (request.getHeader(HttpHeaders.ACCEPT) != null) {
+            headers.set(HttpHeaders.ACCEPT, request.getHeader(HttpHeaders.ACCEPT));
+        }
+        if (requestId != null) {
+            headers.set(RequestId.HEADER, requestId);
+        }
+    }
+
+    private static void writeResponse(HttpServletResponse response, int status, HttpHeaders headers,
+                                      HttpHeaders responseHeaders, ServerTiming timing, long start) {
+        response.setStatus(status);
+        if (headers.getContentType() != null) {
+            response.setContentType(headers.getContentType().toString());
+        }
+        if (headers.getContentLength() >= 0) {
+            response.setContentLengthLong(headers.getContentLength());
+        }
+        responseHeaders.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        if (timing != null) {
+            timing.add(CALL_TIMING, System.nanoTime() - start);
+            timing.addDownstream(headers.getFirst(ServerTiming.HEADER));
+        }
+    }
+
+    private void recordCall(String path, long start, Exception error, ServerTiming timing, String backendTiming) {
+        long elapsed = System.nanoTime() - start;
+        recordOutcome(elapsed, error);
+        callTimer(path, error == null).record(elapsed, TimeUnit.NANOSECONDS);
+        if (timing != null) {
+            timing.add(CALL_TIMING, elapsed);
+            timing.addDownstream(backendTiming);
+        }
+    }
+
+    // Client errors are the caller's fault and do not count against backend, see ignore-exceptions
+    private void recordOutcome(long elapsed, Exception error) {
+        if (error == null) {
+            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+        } else {
+            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, error);
+        }
+    }
+
+    // Registered once per path and outcome, the lookup is on every backend call
+    private Timer callTimer(String path, boolean success) {
+        return (success ? successTimers : errorTimers).computeIfAbsent(path, key -> Timer.builder("backend.calls")
+                .description("Backend round trips from middleware, including connection setup and decoding")
+                .tag("path", key)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // Backend answers in the requested format when it supports it and in JSON otherwise;
+    // the RestTemplate picks the matching converter from the response Content-Type
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(wireFormat.mediaType()));
+        headers.set(HttpHeaders.ACCEPT, wireFormat.accept());
+        String requestId = RequestId.current();
+        if (requestId != null) {
+            headers.set(RequestId.HEADER, requestId);
+        }
+        return headers;
+    }
+
+    private record BufferedResponse(int status, HttpHeaders headers, byte[] body) {
     }
 }
@@ -0,0 +1,257 @@
+package com.netflix.oss.middleware.service;
+
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
+import com.netflix.oss.common.request.RequestId;
+import com.netflix.oss.common.timing.ServerTiming;
+import com.netflix.oss.common.wire.WireFormat;
+import com.netflix.oss.middleware.filter.RequestIdWebFilter;
+import com.netflix.oss.middleware.filter.ServerTimingWebFilter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+// BackendService for the reactive runtime: the same calls, circuit breaker, instance selection,
+// metrics and Server-Timing entries, on a non-blocking WebClient. Hedging is not available here,
+// backend.hedging only applies to the servlet runtime.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBackendService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBackendService.class);
+
+    // Server-Timing entry for the backend round trip as seen from middleware
+    private static final String CALL_TIMING = "middleware.backend";
+
+    private final WebClient webClient;
+    private final BackendInstanceSelector instanceSelector;
+    private final CircuitBreaker circuitBreaker;
+    private final WireFormat wireFormat;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> errorTimers = new ConcurrentHashMap<>();
+
+    public ReactiveBackendService(
+            @Qualifier("backendWebClient") WebClient webClient,
+            BackendInstanceSelector instanceSelector,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            @Value("${backend.service-id:backend}") String serviceId,
+            @Value("${wire.format:json}") WireFormat wireFormat,
+            MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.instanceSelector = instanceSelector;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(serviceId);
+        this.wireFormat = wireFormat;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Mono<UserResponse> callBackend(UserRequest payload) {
+        return call("/api/backend/process", payload, new ParameterizedTypeReference<UserResponse>() {},
+                UserResponse::backendError);
+    }
+
+    public Mono<List<UserResponse>> callBackendBatch(List<UserRequest> payloads) {
+        return call("/api/backend/process-batch", payloads, new ParameterizedTypeReference<List<UserResponse>>() {},
+                message -> Collections.nCopies(payloads.size(), UserResponse.backendError(message)));
+    }
+
+    // Failures never reach the caller, they become the fallback answer built from the error message
+    private <T> Mono<T> call(String path, Object body, ParameterizedTypeReference<T> type,
+                             Function<String, T> fallback) {
+        return Mono.deferContextual(context -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                logger.warn("Backend circuit {}, not calling backend", circuitBreaker.getState());
+                return Mono.just(fallback.apply("Backend circuit open"));
+            }
+
+            Queue<String> timing = ServerTimingWebFilter.entries(context);
+            Call call = new Call(path, instanceSelector.choose());
+            logger.debug("Calling backend at: {}", call.instance.url());
+            return webClient.post()
+                    .uri(call.instance.url() + path)
+                    .contentType(MediaType.parseMediaType(wireFormat.mediaType()))
+                    .header(HttpHeaders.ACCEPT, wireFormat.accept())
+                    .headers(headers -> setRequestId(headers, context))
+                    .bodyValue(body)
+                    .retrieve()
+                    .toEntity(type)
+                    .map(response -> {
+                        logger.debug("Backend response status: {}", response.getStatusCode());
+                        long elapsed = call.finish(null);
+                        addTiming(timing, elapsed, response.getHeaders().getFirst(ServerTiming.HEADER));
+                        return response.getBody();
+                    })
+                    .onErrorResume(e -> {
+                        long elapsed = call.finish(e);
+                        addTiming(timing, elapsed, null);
+                        logger.error("Error calling backend: {}", e.getMessage(), e);
+                        return Mono.just(fallback.apply(e.getMessage()));
+                    })
+                    .doOnCancel(call::cancel);
+        });
+    }
+
+    // Pass-through forwarding: request and response bodies are relayed as raw buffers without being
+    // decoded. Failures before the response starts surface as 502, an open circuit as 503. As in
+    // BackendService, the Server-Timing entry covers the time to the backend response headers and
+    // the backend.calls timer the whole exchange.
+    public Mono<Void> streamToBackend(String path, ServerWebExchange exchange, HttpHeaders responseHeaders) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        return Mono.deferContextual(context -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                logger.warn("Backend circuit {}, not calling backend", circuitBreaker.getState());
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+            }
+
+            Queue<String> timing = ServerTimingWebFilter.entries(context);
+            Call call = new Call(path, instanceSelector.choose());
+            logger.debug("Streaming to backend at: {}", call.instance.url());
+            return webClient.post()
+                    .uri(call.instance.url() + path)
+                    .headers(headers -> {
+                        copyRequestHeaders(request.getHeaders(), headers);
+                        setRequestId(headers, context);
+                    })
+                    .body(BodyInserters.fromDataBuffers(request.getBody()))
+                    .exchangeToMono(backendResponse -> {
+                        if (backendResponse.statusCode().isError()) {
+                            return backendResponse.createError();
+                        }
+                        HttpHeaders headers = backendResponse.headers().asHttpHeaders();
+                        response.setStatusCode(backendResponse.statusCode());
+                        if (headers.getContentType() != null) {
+                            response.getHeaders().setContentType(headers.getContentType());
+                        }
+                        if (headers.getContentLength() >= 0) {
+                            response.getHeaders().setContentLength(headers.getContentLength());
+                        }
+                        responseHeaders.forEach((name, values) -> response.getHeaders().addAll(name, values));
+                        addTiming(timing, System.nanoTime() - call.start, headers.getFirst(ServerTiming.HEADER));
+                        return response.writeWith(backendResponse.bodyToFlux(DataBuffer.class));
+                    })
+                    .doOnSuccess(done -> call.finish(null))
+                    .onErrorResume(e -> {
+                        call.finish(e);
+                        logger.error("Error streaming to backend: {}", e.getMessage(), e);
+                        if (response.isCommitted()) {
+                            return Mono.error(e);
+                        }
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_GATEWAY));
+                    })
+                    .doOnCancel(call::cancel);
+        });
+    }
+
+    private static void copyRequestHeaders(HttpHeaders request, HttpHeaders headers) {
+        if (request.getContentType() != null) {
+            headers.setContentType(request.getContentType());
+        }
+        if (request.getContentLength() >= 0) {
+            headers.setContentLength(request.getContentLength());
+        }
+        if (request.getFirst(HttpHeaders.ACCEPT) != null) {
+            headers.set(HttpHeaders.ACCEPT, request.getFirst(HttpHeaders.ACCEPT));
+        }
+    }
+
+    private static void setRequestId(HttpHeaders headers, ContextView context) {
+        String requestId = RequestIdWebFilter.requestId(context);
+        if (requestId != null) {
+            headers.set(RequestId.HEADER, requestId);
+        }
+    }
+
+    private static void addTiming(Queue<String> timing, long elapsed, String backendTiming) {
+        if (timing != null) {
+            timing.add(ServerTiming.entry(CALL_TIMING, elapsed));
+            if (backendTiming != null && !backendTiming.isBlank()) {
+                timing.add(backendTiming);
+            }
+        }
+    }
+
+    private Timer callTimer(String path, boolean success) {
+        return (success ? successTimers : errorTimers).computeIfAbsent(path, key -> Timer.builder("backend.calls")
+                .description("Backend round trips from middleware, including connection setup and decoding")
+                .tag("path", key)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // One backend call in flight. Settled exactly once, by whichever of completion, failure or
+    // cancellation comes first, so the instance's in-flight count and the circuit breaker permit
+    // are never released twice.
+    private final class Call {
+
+        private final String path;
+        private final BackendInstanceSelector.Instance instance;
+        private final long start;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        Call(String path, BackendInstanceSelector.Instance instance) {
+            this.path = path;
+            this.instance = instance;
+            this.start = instance.start();
+        }
+
+        // Records the outcome and returns the call's duration
+        long finish(Throwable error) {
+            long elapsed = System.nanoTime() - start;
+            if (!settled.compareAndSet(false, true)) {
+                return elapsed;
+            }
+            instance.complete(start, error == null);
+            if (error == null) {
+                circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            } else if (error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+                // Client errors are the caller's fault and do not count against backend
+                circuitBreaker.releasePermission();
+            } else {
+                circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, error);
+            }
+            callTimer(path, error == null).record(elapsed, TimeUnit.NANOSECONDS);
+            return elapsed;
+        }
+
+        // The caller went away, which says nothing about backend; the time so far still counts as
+        // a latency sample for the instance
+        void cancel() {
+            if (settled.compareAndSet(false, true)) {
+                instance.complete(start, true);
+                circuitBreaker.releasePermission();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.netflix.oss.middleware.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    void containsOnlyAddedValues() {
+        LongHashSet set = new LongHashSet(3);
+        set.add(42L);
+        set.add(-7L);
+        set.add(Long.MAX_VALUE);
+
+        assertThat(set.contains(42L)).isTrue();
+        assertThat(set.contains(-7L)).isTrue();
+        assertThat(set.contains(Long.MAX_VALUE)).isTrue();
+        assertThat(set.contains(43L)).isFalse();
+        assertThat(set.contains(Long.MIN_VALUE)).isFalse();
+        assertThat(set.size()).isEqualTo(3);
+    }
+
+    @Test
+    void emptySetContainsNothing() {
+        LongHashSet set = new LongHashSet(0);
+
+        assertThat(set.contains(0L)).isFalse();
+        assertThat(set.contains(1L)).isFalse();
+        assertThat(set.size()).isZero();
+    }
+
+    // Zero marks a free slot, so it is tracked apart from the table
+    @Test
+    void zeroIsAValueLikeAnyOther() {
+        LongHashSet set = new LongHashSet(2);
+        set.add(5L);
+
+        assertThat(set.contains(0L)).isFalse();
+        set.add(0L);
+        set.add(0L);
+        assertThat(set.contains(0L)).isTrue();
+        assertThat(set.size()).isEqualTo(2);
+    }
+
+    @Test
+    void addingAValueTwiceKeepsOneCopy() {
+        LongHashSet set = new LongHashSet(4);
+        set.add(1001L);
+        set.add(1001L);
+
+        assertThat(set.contains(1001L)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    // Values with the same home slot are probed past each other, and a lookup for a missing value
+    // with that home slot walks the run and stops at the free slot after it
+    @Test
+    void collidingValuesAreAllFound() {
+        int capacity = 8;
+        List<Long> colliding = valuesWithHomeSlot(3, capacity, 3);
+        LongHashSet set = new LongHashSet(capacity / 2);
+        colliding.forEach(set::add);
+
+        colliding.forEach(value -> assertThat(set.contains(value)).isTrue());
+        assertThat(set.contains(valuesWithHomeSlot(3, capacity, 4).get(3))).isFalse();
+        assertThat(set.size()).isEqualTo(3);
+    }
+
+    // A run that starts in the last slot continues at the first
+    @Test
+    void probingWrapsAroundTheTable() {
+        int capacity = 8;
+        List<Long> colliding = valuesWithHomeSlot(capacity - 1, capacity, 3);
+        LongHashSet set = new LongHashSet(capacity / 2);
+        colliding.forEach(set::add);
+
+        colliding.forEach(value -> assertThat(set.contains(value)).isTrue());
+        assertThat(set.contains(valuesWithHomeSlot(capacity - 1, capacity, 4).get(3))).isFalse();
+    }
+
+    @Test
+    void findsEveryValueOfAFullSet() {
+        Random random = new Random(7);
+        List<Long> added = new ArrayList<>();
+        LongHashSet set = new LongHashSet(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            long value = i % 2 == 0 ? i : random.nextLong();
+            added.add(value);
+            set.add(value);
+        }
+
+        added.forEach(value -> assertThat(set.contains(value)).isTrue());
+        assertThat(set.contains(10_001L)).isFalse();
+        assertThat(set.size()).isEqualTo(added.size());
+    }
+
+    // Mirrors LongHashSet.index for a table of the given capacity
+    private static List<Long> valuesWithHomeSlot(int slot, int capacity, int count) {
+        List<Long> values = new ArrayList<>();
+        for (long value = 1; values.size() < count; value++) {
+            if (((int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & (capacity - 1)) == slot) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+}
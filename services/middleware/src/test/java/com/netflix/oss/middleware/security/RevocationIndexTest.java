@@ -0,0 +1,138 @@
+package com.netflix.oss.middleware.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The CRLs under src/test/resources/revocation were made with openssl ca -gencrl and are valid
+// until 2126. ca.pem signs revoked.crl (serials 0x1001 and 0x010000000000000005) and extra.crl
+// (0x2002); untrusted.crl comes from a CA that is not in the truststore.
+class RevocationIndexTest {
+
+    private static X509Certificate ca;
+    private static String issuer;
+
+    @TempDir
+    Path crlDir;
+
+    private RevocationIndex index;
+
+    @BeforeAll
+    static void loadCa() throws Exception {
+        try (InputStream in = RevocationIndexTest.class.getResourceAsStream("/revocation/ca.pem")) {
+            ca = (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(in);
+        }
+        issuer = ca.getSubjectX500Principal().getName();
+    }
+
+    @AfterEach
+    void close() {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    @Test
+    void revokedSerialIsRevoked() throws IOException {
+        copy("revoked.crl");
+        index = index();
+
+        assertThat(index.isRevoked(identity(issuer, new BigInteger("1001", 16)))).isTrue();
+        assertThat(index.isRevoked(identity(issuer, new BigInteger("010000000000000005", 16)))).isTrue();
+    }
+
+    @Test
+    void otherSerialIsNotRevoked() throws IOException {
+        copy("revoked.crl");
+        index = index();
+
+        assertThat(index.isRevoked(identity(issuer, new BigInteger("1002", 16)))).isFalse();
+    }
+
+    // 0x010000000000000005 and 5 share their low 64 bits and so the hash key; the exact set decides
+    @Test
+    void serialWithCollidingKeyIsNotRevoked() throws IOException {
+        copy("revoked.crl");
+        index = index();
+
+        assertThat(index.isRevoked(identity(issuer, BigInteger.valueOf(5)))).isFalse();
+    }
+
+    @Test
+    void revokedSerialFromAnotherIssuerIsNotRevoked() throws IOException {
+        copy("revoked.crl");
+        index = index();
+
+        assertThat(index.isRevoked(identity("CN=someone else", new BigInteger("1001", 16)))).isFalse();
+    }
+
+    @Test
+    void emptyDirectoryRevokesNothing() {
+        index = index();
+
+        assertThat(index.isRevoked(identity(issuer, new BigInteger("1001", 16)))).isFalse();
+    }
+
+    @Test
+    void reloadPicksUpANewCrl() throws IOException {
+        copy("revoked.crl");
+        index = index();
+        assertThat(index.isRevoked(identity(issuer, new BigInteger("2002", 16)))).isFalse();
+
+        copy("extra.crl");
+        index.reloadIfChanged();
+
+        assertThat(index.isRevoked(identity(issuer, new BigInteger("2002", 16)))).isTrue();
+        assertThat(index.isRevoked(identity(issuer, new BigInteger("1001", 16)))).isTrue();
+    }
+
+    @Test
+    void failedReloadKeepsThePreviousList() throws IOException {
+        copy("revoked.crl");
+        index = index();
+
+        copy("untrusted.crl");
+        index.reloadIfChanged();
+
+        assertThat(index.isRevoked(identity(issuer, new BigInteger("1001", 16)))).isTrue();
+    }
+
+    @Test
+    void crlFromUntrustedIssuerFailsStartup() throws IOException {
+        copy("untrusted.crl");
+
+        assertThatThrownBy(this::index)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Cannot load CRLs");
+    }
+
+    private RevocationIndex index() {
+        return new RevocationIndex(crlDir, Duration.ofHours(1), List.of(ca), new SimpleMeterRegistry());
+    }
+
+    private void copy(String crl) throws IOException {
+        try (InputStream in = RevocationIndexTest.class.getResourceAsStream("/revocation/" + crl)) {
+            Files.copy(in, crlDir.resolve(crl), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static ClientIdentity identity(String issuer, BigInteger serialNumber) {
+        return new ClientIdentity("client", "CN=client", issuer, serialNumber, null, null, null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.netflix.oss.userbff.config;
+
+import com.netflix.oss.userbff.controller.GraphQLController;
+import com.netflix.oss.userbff.graphql.CachingDocumentProvider;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.http.CacheControl;
+
+// Query documents come from CachingDocumentProvider, and queries that are too deep or select too
+// many fields are rejected after validation and before any data fetcher runs. Every field counts
+// one towards complexity, so an aliased userStatus with all six fields costs seven.
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer documentCacheCustomizer(CachingDocumentProvider documentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentProvider));
+    }
+
+    // GraphQL reports failures as 200, with errors or with statuses built from a failed
+    // middleware call; no-store keeps the gateway's response cache from replaying them
+    @Bean
+    public WebGraphQlInterceptor noStoreOnFailureInterceptor() {
+        return (request, chain) -> chain.next(request).doOnNext(response -> {
+            if (!response.getErrors().isEmpty()
+                    || response.getExecutionInput().getGraphQLContext().hasKey(GraphQLController.FAILED_LOAD)) {
+                response.getResponseHeaders().setCacheControl(CacheControl.noStore());
+            }
+        });
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${graphql.limits.max-depth:5}") int maxDepth,
+            MeterRegistry meterRegistry) {
+        Counter rejected = rejectedCounter(meterRegistry, "depth");
+        return new MaxQueryDepthInstrumentation(maxDepth, info -> {
+            rejected.increment();
+            return true;
+        });
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${graphql.limits.max-complexity:1000}") int maxComplexity,
+            MeterRegistry meterRegistry) {
+        Counter rejected = rejectedCounter(meterRegistry, "complexity");
+        return new MaxQueryComplexityInstrumentation(maxComplexity, info -> {
+            rejected.increment();
+            return true;
+        });
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("graphql.queries.rejected")
+                .description("GraphQL queries rejected before execution for exceeding a limit")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
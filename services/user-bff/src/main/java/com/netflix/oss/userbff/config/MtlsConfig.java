@@ -1,21 +1,32 @@
 package com.netflix.oss.userbff.config;
 
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
-import org.apache.hc.client5.http.io.HttpClientConnectionManager;
-import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
-import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
 import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http2.config.H2Config;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
 
 import javax.net.ssl.SSLContext;
 import java.io.File;
+import java.time.Duration;
 
 @Configuration
 public class MtlsConfig {
@@ -35,34 +46,129 @@ public class MtlsConfig {
     @Value("${middleware.ssl.key-password}")
     private String keyPassword;
 
-    @Bean
-    public RestTemplate mtlsRestTemplate() throws Exception {
-        File trustStoreFile = new File(trustStorePath);
-        File keyStoreFile = new File(keyStorePath);
+    @Value("${middleware.http.pool.max-total:200}")
+    private int poolMaxTotal;
 
-        SSLContext sslContext = SSLContextBuilder.create()
-                .loadTrustMaterial(trustStoreFile, trustStorePassword.toCharArray())
-                .loadKeyMaterial(keyStoreFile, keyStorePassword.toCharArray(), keyPassword.toCharArray())
+    @Value("${middleware.http.pool.max-per-route:200}")
+    private int poolMaxPerRoute;
+
+    @Value("${middleware.http.pool.time-to-live:5m}")
+    private Duration poolTimeToLive;
+
+    @Value("${middleware.http.pool.validate-after-inactivity:2s}")
+    private Duration poolValidateAfterInactivity;
+
+    @Value("${middleware.http.pool.idle-eviction:30s}")
+    private Duration poolIdleEviction;
+
+    @Value("${middleware.http.pool.lease-timeout:2s}")
+    private Duration poolLeaseTimeout;
+
+    @Value("${middleware.http.connect-timeout:10s}")
+    private Duration connectTimeout;
+
+    @Value("${middleware.http.response-timeout:10s}")
+    private Duration responseTimeout;
+
+    @Value("${middleware.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${middleware.http.version:http1}")
+    private String httpVersion;
+
+    @Bean(destroyMethod = "close")
+    public PoolingAsyncClientConnectionManager mtlsAsyncConnectionManager() throws Exception {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .setTlsStrategy(tlsStrategy())
+                .setMaxConnTotal(poolMaxTotal)
+                .setMaxConnPerRoute(poolMaxPerRoute)
+                .setDefaultConnectionConfig(connectionConfig())
                 .build();
+    }
 
-        // Use NoopHostnameVerifier because middleware IP is dynamic in cloud environment
-        // mTLS still validates the certificate chain through the CA
-        SSLConnectionSocketFactory sslSocketFactory = SSLConnectionSocketFactoryBuilder.create()
-                .setSslContext(sslContext)
-                .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+    // http1: one call per pooled connection. http2: calls are multiplexed as streams over a single
+    // connection per middleware host, negotiated with ALPN, so concurrency no longer costs sockets
+    // or handshakes. The async pool above and its metrics then stay empty.
+    // Connection state is disabled on the http1 client: with a client certificate every connection
+    // would otherwise be tagged with the TLS principal and never handed back to a stateless lease,
+    // forcing a fresh handshake per request. All calls share the one client identity.
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient mtlsAsyncClient(
+            @Qualifier("mtlsAsyncConnectionManager") PoolingAsyncClientConnectionManager connectionManager,
+            MeterRegistry meterRegistry) throws Exception {
+        CloseableHttpAsyncClient httpClient = switch (httpVersion) {
+            case "http1" -> HttpAsyncClients.custom()
+                    .setConnectionManager(new LeaseTimingConnectionManager(connectionManager, meterRegistry))
+                    .setDefaultRequestConfig(requestConfig())
+                    .setKeepAliveStrategy(keepAliveStrategy())
+                    .setIOSessionListener(new MtlsConnectionMetrics("http1", meterRegistry))
+                    .disableConnectionState()
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.of(poolIdleEviction))
+                    .build();
+            case "http2" -> H2AsyncClientBuilder.create()
+                    .setTlsStrategy(tlsStrategy())
+                    .setH2Config(H2Config.custom().setPushEnabled(false).build())
+                    .setDefaultConnectionConfig(connectionConfig())
+                    .setDefaultRequestConfig(requestConfig())
+                    .setIOSessionListener(new MtlsConnectionMetrics("http2", meterRegistry))
+                    .evictIdleConnections(TimeValue.of(poolIdleEviction))
+                    .build();
+            default -> throw new IllegalArgumentException(
+                    "middleware.http.version must be http1 or http2, not " + httpVersion);
+        };
+        httpClient.start();
+
+        return httpClient;
+    }
+
+    // Exposes leased, available and pending connection counts for the pool
+    @Bean
+    public MeterBinder mtlsConnectionPoolMetrics(
+            @Qualifier("mtlsAsyncConnectionManager") PoolingAsyncClientConnectionManager asyncConnectionManager) {
+        return registry ->
+                new PoolingHttpClientConnectionManagerMetricsBinder(asyncConnectionManager, "middleware-async").bindTo(registry);
+    }
+
+    private ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(responseTimeout))
+                .setTimeToLive(TimeValue.of(poolTimeToLive))
+                .setValidateAfterInactivity(TimeValue.of(poolValidateAfterInactivity))
                 .build();
+    }
 
-        HttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
-                .setSSLSocketFactory(sslSocketFactory)
+    private RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(poolLeaseTimeout))
+                .setResponseTimeout(Timeout.of(responseTimeout))
                 .build();
+    }
+
+    // Honour the server's Keep-Alive header, otherwise keep connections for middleware.http.keep-alive
+    private ConnectionKeepAliveStrategy keepAliveStrategy() {
+        TimeValue defaultKeepAlive = TimeValue.of(keepAlive);
+        return (response, context) -> {
+            TimeValue serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return response.containsHeader("Keep-Alive") ? serverKeepAlive : defaultKeepAlive;
+        };
+    }
 
-        CloseableHttpClient httpClient = HttpClients.custom()
-                .setConnectionManager(connectionManager)
+    private TlsStrategy tlsStrategy() throws Exception {
+        return ClientTlsStrategyBuilder.create()
+                .setSslContext(buildSslContext())
+                .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
                 .build();
+    }
 
-        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
-        factory.setConnectTimeout(10000);
+    private SSLContext buildSslContext() throws Exception {
+        File trustStoreFile = new File(trustStorePath);
+        File keyStoreFile = new File(keyStorePath);
 
-        return new RestTemplate(factory);
+        return SSLContextBuilder.create()
+                .loadTrustMaterial(trustStoreFile, trustStorePassword.toCharArray())
+                .loadKeyMaterial(keyStoreFile, keyStorePassword.toCharArray(), keyPassword.toCharArray())
+                .build();
     }
 }
@@ -0,0 +1,63 @@
+package com.netflix.oss.userbff.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.core5.reactor.IOSession;
+import org.apache.hc.core5.reactor.IOSessionListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Counts the connections of the async client to middleware. Every connection starts with an mTLS
+// handshake, so the opened counter is also the handshake count; with HTTP/2 it should stay near
+// one per middleware host however many calls are in flight.
+public class MtlsConnectionMetrics implements IOSessionListener {
+
+    // Sessions that failed before connecting are still reported as disconnected
+    private final Set<IOSession> open = ConcurrentHashMap.newKeySet();
+    private final Counter opened;
+
+    public MtlsConnectionMetrics(String protocol, MeterRegistry meterRegistry) {
+        Gauge.builder("middleware.connections.open", open, Set::size)
+                .description("mTLS connections to middleware currently open")
+                .tag("protocol", protocol)
+                .register(meterRegistry);
+        this.opened = Counter.builder("middleware.connections.opened")
+                .description("mTLS connections opened to middleware, one handshake each")
+                .tag("protocol", protocol)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void connected(IOSession session) {
+        if (open.add(session)) {
+            opened.increment();
+        }
+    }
+
+    @Override
+    public void disconnected(IOSession session) {
+        open.remove(session);
+    }
+
+    @Override
+    public void startTls(IOSession session) {
+    }
+
+    @Override
+    public void inputReady(IOSession session) {
+    }
+
+    @Override
+    public void outputReady(IOSession session) {
+    }
+
+    @Override
+    public void timeout(IOSession session) {
+    }
+
+    @Override
+    public void exception(IOSession session, Exception ex) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.netflix.oss.userbff.config;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Opens and handshakes a number of mTLS connections to middleware before the instance is
+// registered with Eureka, so the first real requests do not pay for new handshakes.
+// Runs in a phase ahead of EurekaAutoServiceRegistration (phase 0).
+@Component
+public class MtlsConnectionPrewarmer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(MtlsConnectionPrewarmer.class);
+
+    private final CloseableHttpAsyncClient mtlsAsyncClient;
+    private final String middlewareUrl;
+    private final int connections;
+    private final Duration timeout;
+    private volatile boolean running;
+
+    public MtlsConnectionPrewarmer(
+            @Qualifier("mtlsAsyncClient") CloseableHttpAsyncClient mtlsAsyncClient,
+            @Value("${middleware.url}") String middlewareUrl,
+            @Value("${middleware.http.prewarm.connections:0}") int connections,
+            @Value("${middleware.http.prewarm.timeout:10s}") Duration timeout) {
+        this.mtlsAsyncClient = mtlsAsyncClient;
+        this.middlewareUrl = middlewareUrl;
+        this.connections = connections;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (connections <= 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+
+        // Concurrent requests force the pool to open one connection per request
+        List<Future<SimpleHttpResponse>> requests = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            requests.add(mtlsAsyncClient.execute(
+                    SimpleRequestBuilder.get(middlewareUrl + "/api/mw/health").build(), null));
+        }
+
+        int warmed = 0;
+        for (Future<SimpleHttpResponse> request : requests) {
+            try {
+                request.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                warmed++;
+            } catch (Exception e) {
+                request.cancel(true);
+                logger.warn("Pre-warm connection to middleware failed: {}", e.toString());
+            }
+        }
+
+        logger.info("Pre-warmed {}/{} mTLS connections to middleware in {} ms",
+                warmed, connections, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return -1;
+    }
+}
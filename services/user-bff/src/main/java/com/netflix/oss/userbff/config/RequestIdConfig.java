@@ -0,0 +1,22 @@
+package com.netflix.oss.userbff.config;
+
+import com.netflix.oss.common.request.RequestIdFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Request ID from cloud-gateway in the MDC of every user-bff log line, and on every middleware
+// call. GraphQL data fetchers get it through the context propagation Spring for GraphQL applies.
+@Configuration
+public class RequestIdConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilter() {
+        FilterRegistrationBean<RequestIdFilter> registration = new FilterRegistrationBean<>(new RequestIdFilter());
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
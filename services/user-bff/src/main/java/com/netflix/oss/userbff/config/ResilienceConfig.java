@@ -0,0 +1,53 @@
+package com.netflix.oss.userbff.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+// Counts and logs the state changes of the middleware circuit breaker. Its thresholds and the
+// per-channel bulkheads are plain resilience4j.* properties served by config-server.
+@Configuration
+public class ResilienceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    @Bean
+    public RegistryEventConsumer<CircuitBreaker> circuitBreakerTransitions(MeterRegistry meterRegistry) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> event) {
+                CircuitBreaker circuitBreaker = event.getAddedEntry();
+                circuitBreaker.getEventPublisher().onStateTransition(transition -> {
+                    CircuitBreaker.StateTransition states = transition.getStateTransition();
+                    logger.warn("Circuit breaker {} went from {} to {}",
+                            circuitBreaker.getName(), states.getFromState(), states.getToState());
+                    Counter.builder("circuitbreaker.transitions")
+                            .description("Circuit breaker state changes")
+                            .tag("name", circuitBreaker.getName())
+                            .tag("from", states.getFromState().name().toLowerCase(Locale.ROOT))
+                            .tag("to", states.getToState().name().toLowerCase(Locale.ROOT))
+                            .register(meterRegistry)
+                            .increment();
+                });
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> event) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> event) {
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.netflix.oss.userbff.config;
 
+import com.netflix.oss.userbff.soap.StreamingSaajSoapMessageFactory;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -24,6 +25,13 @@ public class WebServiceConfig extends WsConfigurerAdapter {
         return new ServletRegistrationBean<>(servlet, "/ws/*");
     }
 
+    // Picked up by MessageDispatcherServlet by name; lets JAXB responses stream instead of being
+    // built as a SAAJ DOM first
+    @Bean(name = "messageFactory")
+    public StreamingSaajSoapMessageFactory messageFactory() {
+        return new StreamingSaajSoapMessageFactory();
+    }
+
     @Bean(name = "users")
     public DefaultWsdl11Definition defaultWsdl11Definition(XsdSchema usersSchema) {
         DefaultWsdl11Definition wsdl11Definition = new DefaultWsdl11Definition();
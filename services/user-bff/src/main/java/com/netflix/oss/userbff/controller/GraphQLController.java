@@ -1,44 +1,79 @@
 package com.netflix.oss.userbff.controller;
 
+import com.netflix.oss.common.model.UserResponse;
 import com.netflix.oss.userbff.service.MiddlewareService;
+import com.netflix.oss.userbff.service.UserStatusCache;
+import graphql.GraphQLContext;
+import org.dataloader.DataLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 public class GraphQLController {
 
     private static final Logger logger = LoggerFactory.getLogger(GraphQLController.class);
 
+    // Set in the GraphQL context when a status was built from a failed middleware call
+    public static final String FAILED_LOAD = "userStatusFailed";
+
     private final MiddlewareService middlewareService;
+    private final UserStatusCache userStatusCache;
 
-    public GraphQLController(MiddlewareService middlewareService) {
+    public GraphQLController(MiddlewareService middlewareService,
+                             UserStatusCache userStatusCache,
+                             BatchLoaderRegistry batchLoaderRegistry,
+                             @Value("${middleware.batch.max-size:100}") int maxBatchSize) {
         this.middlewareService = middlewareService;
+        this.userStatusCache = userStatusCache;
+        
+        // Every userStatus field in a query (including aliases) is collected into one
+        // forward-batch call per dispatch instead of one middleware round trip per id
+        batchLoaderRegistry.forTypePair(String.class, UserStatus.class)
+                .withOptions(options -> options.setMaxBatchSize(maxBatchSize))
+                .registerMappedBatchLoader((ids, env) -> Mono.fromFuture(loadUserStatuses(ids, env.getContext())));
     }
 
     @QueryMapping
-    public UserStatus userStatus(@Argument String id) {
-        logger.info("GraphQL query for user status with id: {}", id);
-        
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("userId", id);
-        payload.put("operation", "getUserStatus");
-        payload.put("source", "graphql-api");
-        
-        Map<String, Object> response = middlewareService.callMiddleware(payload);
-        
+    public CompletableFuture<UserStatus> userStatus(@Argument String id, DataLoader<String, UserStatus> userStatusLoader) {
+        logger.debug("GraphQL query for user status with id: {}", id);
+        return userStatusLoader.load(id);
+    }
+
+    private CompletableFuture<Map<String, UserStatus>> loadUserStatuses(Set<String> ids, GraphQLContext context) {
+        return userStatusCache.getAll("getUserStatus", ids,
+                        missing -> middlewareService.getUserStatuses(missing, "graphql-api"))
+                .thenApply(responses -> {
+                    Map<String, UserStatus> statuses = new HashMap<>();
+                    responses.forEach((id, response) -> {
+                        if (response.failed() && context != null) {
+                            context.put(FAILED_LOAD, true);
+                        }
+                        statuses.put(id, toUserStatus(id, response));
+                    });
+                    return statuses;
+                });
+    }
+
+    private UserStatus toUserStatus(String id, UserResponse response) {
         UserStatus userStatus = new UserStatus();
         userStatus.setId(id);
         userStatus.setStatus("ACTIVE");
-        userStatus.setServedBy((String) response.getOrDefault("servedBy", "unknown"));
-        userStatus.setMtlsVerified((Boolean) response.getOrDefault("mtlsVerified", false));
-        userStatus.setClientCN((String) response.getOrDefault("clientCN", "unknown"));
-        userStatus.setBackendVersion((String) response.getOrDefault("backendVersion", "unknown"));
+        userStatus.setServedBy(Objects.requireNonNullElse(response.servedBy(), "unknown"));
+        userStatus.setMtlsVerified(Objects.requireNonNullElse(response.mtlsVerified(), false));
+        userStatus.setClientCN(Objects.requireNonNullElse(response.clientCN(), "unknown"));
+        userStatus.setBackendVersion(Objects.requireNonNullElse(response.backendVersion(), "unknown"));
         
         return userStatus;
     }
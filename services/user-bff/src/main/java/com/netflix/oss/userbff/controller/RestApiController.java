@@ -1,13 +1,17 @@
 package com.netflix.oss.userbff.controller;
 
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
 import com.netflix.oss.userbff.service.MiddlewareService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/rest")
@@ -22,18 +26,19 @@ public class RestApiController {
     }
 
     @GetMapping("/hello")
-    public ResponseEntity<Map<String, Object>> hello(@RequestParam(defaultValue = "World") String name) {
-        logger.info("REST endpoint called with name: {}", name);
-        
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("name", name);
-        payload.put("operation", "hello");
-        payload.put("source", "rest-api");
-        
-        Map<String, Object> response = middlewareService.callMiddleware(payload);
-        response.put("greeting", "Hello, " + name + "!");
-        
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<UserResponse>> hello(@RequestParam(defaultValue = "World") String name) {
+        logger.debug("REST endpoint called with name: {}", name);
+
+        UserRequest payload = UserRequest.forName("hello", name, "rest-api");
+
+        return middlewareService.callMiddlewareAsync(payload)
+                .thenApply(response -> {
+                    UserResponse greeted = response.withGreeting("Hello, " + name + "!");
+                    // Failures are reported as 200, no-store keeps the gateway from caching them
+                    return response.failed()
+                            ? ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(greeted)
+                            : ResponseEntity.ok(greeted);
+                });
     }
 
     @GetMapping("/health")
@@ -0,0 +1,111 @@
+package com.netflix.oss.userbff.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ErrorClassification;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Parses and validates each distinct query document once. Entries are keyed by the query text,
+// so queries should pass ids as variables rather than inline them. Validation errors are cached
+// too, they do not change while the schema does not. Requests that carry an Apollo persisted
+// query hash (extensions.persistedQuery.sha256Hash) have their text looked up in
+// PersistedQueryRegistry first; an unknown hash is registered only when the request also sends
+// the query and the hash matches it. Everything here is synchronous, graphql-java only calls
+// getDocumentAsync, so it returns a completed future.
+@Component
+public class CachingDocumentProvider implements PreparsedDocumentProvider {
+
+    private final PersistedQueryRegistry persistedQueries;
+    private final Cache<String, PreparsedDocumentEntry> documents;
+
+    public CachingDocumentProvider(
+            PersistedQueryRegistry persistedQueryRegistry,
+            @Value("${graphql.documents.cache.max-size:1000}") long maxSize,
+            MeterRegistry meterRegistry) {
+        this.persistedQueries = persistedQueryRegistry;
+        this.documents = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, documents, "graphqlDocuments");
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        return CompletableFuture.completedFuture(document(executionInput, parseAndValidate));
+    }
+
+    @Override
+    @Deprecated
+    public PreparsedDocumentEntry getDocument(
+            ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        return document(executionInput, parseAndValidate);
+    }
+
+    private PreparsedDocumentEntry document(
+            ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        String hash = persistedQueryHash(executionInput);
+        if (hash == null) {
+            return parse(executionInput, parseAndValidate);
+        }
+
+        String query = persistedQueries.find(hash);
+        if (query != null) {
+            return parse(executionInput.transform(builder -> builder.query(query)), parseAndValidate);
+        }
+
+        String supplied = executionInput.getQuery();
+        if (!persistedQueries.registersOnFirstUse() || supplied == null || supplied.isBlank()
+                || supplied.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER)) {
+            PersistedQueryNotFound notFound = new PersistedQueryNotFound(hash);
+            return error(notFound, notFound.getMessage(), notFound.getExtensions());
+        }
+        if (!hash.equalsIgnoreCase(PersistedQueryRegistry.sha256(supplied))) {
+            PersistedQueryIdInvalid invalid = new PersistedQueryIdInvalid(hash);
+            return error(invalid, invalid.getMessage(), invalid.getExtensions());
+        }
+        PreparsedDocumentEntry entry = parse(executionInput, parseAndValidate);
+        if (!entry.hasErrors()) {
+            persistedQueries.register(hash, supplied);
+        }
+        return entry;
+    }
+
+    private PreparsedDocumentEntry parse(
+            ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        return documents.get(executionInput.getQuery(), query -> parseAndValidate.apply(executionInput));
+    }
+
+    private static String persistedQueryHash(ExecutionInput executionInput) {
+        Object persistedQuery = executionInput.getExtensions().get("persistedQuery");
+        if (persistedQuery instanceof Map<?, ?> extension) {
+            Object hash = extension.get("sha256Hash");
+            return hash != null ? hash.toString() : null;
+        }
+        return null;
+    }
+
+    private static PreparsedDocumentEntry error(ErrorClassification type, String message,
+                                                Map<String, Object> extensions) {
+        return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+                .errorType(type)
+                .message(message)
+                .extensions(extensions)
+                .build());
+    }
+}
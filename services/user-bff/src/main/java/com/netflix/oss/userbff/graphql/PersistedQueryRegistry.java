@@ -0,0 +1,101 @@
+package com.netflix.oss.userbff.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+// Persisted query documents by SHA-256 hash, as used by the Apollo persisted query extension.
+// The documents under graphql.persisted-queries.locations are known from startup, hashed over
+// their text without surrounding whitespace. With register-on-first-use, a request that sends a
+// hash together with its query adds it (bounded by max-size, least recently used go first), so
+// later requests can send the hash alone. The extension itself (hash checks, errors, parsing) is
+// handled by CachingDocumentProvider.
+@Component
+public class PersistedQueryRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistedQueryRegistry.class);
+
+    private final boolean registerOnFirstUse;
+    private final Map<String, String> configured;
+    private final Cache<String, String> registered;
+    private final Counter hits;
+    private final Counter misses;
+
+    public PersistedQueryRegistry(
+            @Value("${graphql.persisted-queries.locations:classpath*:graphql/persisted/*.graphql}") String locations,
+            @Value("${graphql.persisted-queries.register-on-first-use:true}") boolean registerOnFirstUse,
+            @Value("${graphql.persisted-queries.max-size:1000}") long maxSize,
+            MeterRegistry meterRegistry) throws IOException {
+        this.registerOnFirstUse = registerOnFirstUse;
+        this.configured = load(locations);
+        this.registered = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        logger.info("Loaded {} persisted GraphQL queries from {}", configured.size(), locations);
+    }
+
+    // The query text for the hash, or null when it is neither configured nor registered
+    public String find(String hash) {
+        String query = configured.get(hash);
+        if (query == null) {
+            query = registered.getIfPresent(hash);
+        }
+        if (query != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return query;
+    }
+
+    public boolean registersOnFirstUse() {
+        return registerOnFirstUse;
+    }
+
+    // Callers check that the hash matches the query and that it parses before registering it
+    public void register(String hash, String query) {
+        registered.put(hash, query);
+    }
+
+    private static Map<String, String> load(String locations) throws IOException {
+        Map<String, String> queries = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(locations)) {
+            String query = resource.getContentAsString(StandardCharsets.UTF_8).strip();
+            queries.put(sha256(query), query);
+        }
+        return Map.copyOf(queries);
+    }
+
+    static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("graphql.persisted.queries")
+                .description("Requests that referenced a persisted query by hash")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,59 +1,332 @@
 package com.netflix.oss.userbff.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.netflix.oss.common.logging.PayloadSampler;
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
+import com.netflix.oss.common.request.RequestId;
+import com.netflix.oss.common.timing.ServerTiming;
+import com.netflix.oss.common.wire.ForwardHeaders;
+import com.netflix.oss.common.wire.WireFormat;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpServerErrorException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 @Service
 public class MiddlewareService {
 
     private static final Logger logger = LoggerFactory.getLogger(MiddlewareService.class);
 
-    private final RestTemplate mtlsRestTemplate;
+    private static final TypeReference<UserResponse> RESPONSE_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<UserResponse>> RESPONSE_LIST_TYPE = new TypeReference<>() {};
+
+    // Server-Timing entry for the middleware round trip as seen from user-bff
+    private static final String CALL_TIMING = "user-bff.middleware";
+
+    private final CloseableHttpAsyncClient mtlsAsyncClient;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final WireFormat wireFormat;
     private final String middlewareUrl;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final CircuitBreaker circuitBreaker;
+    private final BulkheadRegistry bulkheads;
+    private final Map<String, String> priorities;
+    private final PayloadSampler payloadSampler;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> errorTimers = new ConcurrentHashMap<>();
 
     public MiddlewareService(
-            @Qualifier("mtlsRestTemplate") RestTemplate mtlsRestTemplate,
-            @Value("${middleware.url}") String middlewareUrl) {
-        this.mtlsRestTemplate = mtlsRestTemplate;
+            @Qualifier("mtlsAsyncClient") CloseableHttpAsyncClient mtlsAsyncClient,
+            ObjectMapper objectMapper,
+            @Value("${middleware.url}") String middlewareUrl,
+            @Value("${middleware.async.max-in-flight:200}") int maxInFlight,
+            @Value("${wire.format:json}") WireFormat wireFormat,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            Environment environment,
+            PayloadSampler payloadSampler,
+            MeterRegistry meterRegistry) {
+        this.mtlsAsyncClient = mtlsAsyncClient;
+        this.jsonMapper = objectMapper;
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        this.wireFormat = wireFormat;
         this.middlewareUrl = middlewareUrl;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("middleware");
+        this.bulkheads = bulkheadRegistry;
+        this.priorities = Binder.get(environment)
+                .bind("middleware.priority", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        this.payloadSampler = payloadSampler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CompletableFuture<UserResponse> callMiddlewareAsync(UserRequest payload) {
+        logger.debug("Calling middleware asynchronously with mTLS at: {}", middlewareUrl);
+        return postAsync("/api/mw/forward", payload.source(), false, payload, RESPONSE_TYPE,
+                (response, mtls) -> mtls.apply(response), UserResponse::error);
+    }
+
+    public CompletableFuture<List<UserResponse>> callMiddlewareBatchAsync(List<UserRequest> payloads) {
+        logger.debug("Calling middleware asynchronously with mTLS at: {} with batch of {}", middlewareUrl, payloads.size());
+        return postAsync("/api/mw/forward-batch", payloads.isEmpty() ? null : payloads.get(0).source(), true,
+                payloads, RESPONSE_LIST_TYPE,
+                (responses, mtls) -> responses.stream().map(mtls).toList(),
+                message -> Collections.nCopies(payloads.size(), UserResponse.error(message)));
+    }
+
+    // getUserStatus for each id in one forward-batch call, keyed by id. Responses are matched to
+    // ids by position, so a reply with a different count fails every id rather than guessing.
+    public CompletableFuture<Map<String, UserResponse>> getUserStatuses(Collection<String> ids, String source) {
+        List<String> idList = List.copyOf(ids);
+        List<UserRequest> payloads = new ArrayList<>(idList.size());
+        for (String id : idList) {
+            payloads.add(UserRequest.forUser("getUserStatus", id, source));
+        }
+
+        return callMiddlewareBatchAsync(payloads)
+                .thenApply(responses -> {
+                    Map<String, UserResponse> byId = new HashMap<>();
+                    if (responses.size() != idList.size()) {
+                        logger.error("Middleware returned {} statuses for {} ids", responses.size(), idList.size());
+                        UserResponse error = UserResponse.error("Middleware returned " + responses.size()
+                                + " statuses for " + idList.size() + " ids");
+                        idList.forEach(id -> byId.put(id, error));
+                        return byId;
+                    }
+                    for (int i = 0; i < idList.size(); i++) {
+                        byId.put(idList.get(i), responses.get(i));
+                    }
+                    return byId;
+                });
     }
 
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> callMiddleware(Map<String, Object> payload) {
-        logger.info("Calling middleware with mTLS at: {}", middlewareUrl);
-        
+    private <T> CompletableFuture<T> postAsync(String path, String source, boolean batch, Object body,
+                                               TypeReference<T> type,
+                                               BiFunction<T, UnaryOperator<UserResponse>, T> applyMtls,
+                                               Function<String, T> errorResponse) {
+        // Reject rather than queue once the in-flight limit is reached
+        if (!inFlight.tryAcquire()) {
+            logger.warn("Middleware in-flight limit of {} reached, rejecting call", maxInFlight);
+            return CompletableFuture.completedFuture(errorResponse.apply("Middleware in-flight limit reached"));
+        }
+        Bulkhead bulkhead = bulkhead(source);
+        String rejection = acquire(bulkhead);
+        if (rejection != null) {
+            inFlight.release();
+            return CompletableFuture.completedFuture(errorResponse.apply(rejection));
+        }
+
+        payloadSampler.atInfo(logger, sampleRoute(source)).log("Sending to middleware: {}", body);
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.whenComplete((response, ex) -> {
+            bulkhead.onComplete();
+            inFlight.release();
+        });
+
+        // Captured on the request thread, the callbacks run on the client's I/O threads
+        ServerTiming timing = ServerTiming.current();
+        String requestId = RequestId.current();
+        long start = System.nanoTime();
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
-            
-            ResponseEntity<Map> response = mtlsRestTemplate.postForEntity(
-                    middlewareUrl + "/api/mw/forward",
-                    request,
-                    Map.class
-            );
-            
-            logger.info("Middleware response status: {}", response.getStatusCode());
-            return response.getBody();
+            SimpleRequestBuilder builder = SimpleRequestBuilder.post(middlewareUrl + path)
+                    .setHeader(HttpHeaders.ACCEPT, wireFormat.accept())
+                    .setHeader(ForwardHeaders.PRIORITY, priority(source, batch))
+                    .setBody(mapper(wireFormat).writeValueAsBytes(body), ContentType.create(wireFormat.mediaType()));
+            if (requestId != null) {
+                builder.setHeader(RequestId.HEADER, requestId);
+            }
+            SimpleHttpRequest request = builder.build();
+
+            mtlsAsyncClient.execute(request, new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    withRequestId(requestId, () -> {
+                        logger.debug("Middleware response status: {}", response.getCode());
+                        Header middlewareTiming = response.getFirstHeader(ServerTiming.HEADER);
+                        recordOutcome(start, response.getCode() >= 500
+                                ? HttpServerErrorException.create(HttpStatusCode.valueOf(response.getCode()),
+                                        response.getReasonPhrase(), null, null, null)
+                                : null);
+                        recordCall(path, start, response.getCode() < 400, timing,
+                                middlewareTiming != null ? middlewareTiming.getValue() : null);
+                        result.complete(readResponse(response, type, applyMtls, errorResponse));
+                    });
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    withRequestId(requestId, () -> {
+                        logger.error("Error calling middleware: {}", e.getMessage(), e);
+                        recordOutcome(start, e);
+                        recordCall(path, start, false, timing, null);
+                        result.complete(errorResponse.apply(e.getMessage()));
+                    });
+                }
+
+                @Override
+                public void cancelled() {
+                    circuitBreaker.releasePermission();
+                    result.complete(errorResponse.apply("Middleware call cancelled"));
+                }
+            });
         } catch (Exception e) {
             logger.error("Error calling middleware: {}", e.getMessage(), e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", e.getMessage());
-            errorResponse.put("mtlsVerified", false);
-            errorResponse.put("servedBy", "error");
-            return errorResponse;
+            circuitBreaker.releasePermission();
+            result.complete(errorResponse.apply(e.getMessage()));
         }
+        return result;
+    }
+
+    // Callbacks run on the client's I/O threads, which have no request ID in the MDC of their own
+    private static void withRequestId(String requestId, Runnable callback) {
+        if (requestId != null) {
+            MDC.put(RequestId.MDC_KEY, requestId);
+        }
+        try {
+            callback.run();
+        } finally {
+            MDC.remove(RequestId.MDC_KEY);
+        }
+    }
+
+    // Each channel has its own bulkhead, named after the request source (rest-api, graphql-api,
+    // soap-api), so a burst on one cannot take the connections the others need. The circuit
+    // breaker is shared: all channels reach the same middleware.
+    private Bulkhead bulkhead(String source) {
+        return bulkheads.bulkhead(source != null ? source : "unknown");
+    }
+
+    // Middleware admits forwards by this priority once it is overloaded: interactive lookups
+    // keep their place, SOAP batch lookups are shed first. GraphQL batches its single lookups
+    // too, so its forward-batch calls are not bulk and keep the default priority
+    private String priority(String source, boolean batch) {
+        String channel = source != null ? source : "unknown";
+        return priorities.getOrDefault(batch ? channel + "-batch" : channel, "normal");
+    }
+
+    // Payloads are sampled per channel, like the bulkheads
+    private static String sampleRoute(String source) {
+        return source != null ? source : "unknown";
+    }
+
+    // Returns the rejection message, or null once both permits are held
+    private String acquire(Bulkhead bulkhead) {
+        if (!bulkhead.tryAcquirePermission()) {
+            logger.warn("Bulkhead {} full, rejecting middleware call", bulkhead.getName());
+            return "Middleware bulkhead " + bulkhead.getName() + " full";
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            logger.warn("Middleware circuit {}, rejecting call", circuitBreaker.getState());
+            return "Middleware circuit open";
+        }
+        return null;
+    }
+
+    // 5xx and transport failures count against middleware, 4xx are the caller's fault
+    private void recordOutcome(long start, Exception error) {
+        long elapsed = System.nanoTime() - start;
+        if (error == null) {
+            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+        } else {
+            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, error);
+        }
+    }
+
+    private <T> T readResponse(SimpleHttpResponse response, TypeReference<T> type,
+                               BiFunction<T, UnaryOperator<UserResponse>, T> applyMtls,
+                               Function<String, T> errorResponse) {
+        if (response.getCode() >= 400) {
+            // HTTP/2 responses carry no reason phrase
+            String reason = response.getReasonPhrase();
+            return errorResponse.apply(reason != null ? response.getCode() + " " + reason : String.valueOf(response.getCode()));
+        }
+        try {
+            // Decode by what middleware actually sent, so a JSON-only middleware keeps working
+            ContentType contentType = response.getContentType();
+            WireFormat responseFormat = WireFormat.fromContentType(contentType != null ? contentType.getMimeType() : null);
+            T decoded = mapper(responseFormat).readValue(response.getBodyBytes(), type);
+            
+            // In pass-through mode middleware does not touch the body and reports mTLS as headers
+            Header mtlsVerified = response.getFirstHeader(ForwardHeaders.MTLS_VERIFIED);
+            if (mtlsVerified == null) {
+                return decoded;
+            }
+            boolean verified = Boolean.parseBoolean(mtlsVerified.getValue());
+            Header clientCN = response.getFirstHeader(ForwardHeaders.CLIENT_CN);
+            String cn = clientCN != null ? clientCN.getValue() : "unknown";
+            return applyMtls.apply(decoded, r -> r.mtlsVerified() != null ? r : r.withMtls(verified, cn));
+        } catch (Exception e) {
+            logger.error("Error reading middleware response: {}", e.getMessage(), e);
+            return errorResponse.apply(e.getMessage());
+        }
+    }
+
+    private void recordCall(String path, long start, boolean success, ServerTiming timing, String middlewareTiming) {
+        long elapsed = System.nanoTime() - start;
+        callTimer(path, success).record(elapsed, TimeUnit.NANOSECONDS);
+        if (timing != null) {
+            timing.add(CALL_TIMING, elapsed);
+            timing.addDownstream(middlewareTiming);
+        }
+    }
+
+    // Registered once per path and outcome, the lookup is on every middleware call
+    private Timer callTimer(String path, boolean success) {
+        return (success ? successTimers : errorTimers).computeIfAbsent(path, key -> Timer.builder("middleware.calls")
+                .description("Middleware round trips from user-bff, including the mTLS handshake on new connections")
+                .tag("path", key)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private ObjectMapper mapper(WireFormat format) {
+        return format == WireFormat.CBOR ? cborMapper : jsonMapper;
     }
 }
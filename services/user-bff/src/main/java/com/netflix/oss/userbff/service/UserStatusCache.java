@@ -0,0 +1,120 @@
+package com.netflix.oss.userbff.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.oss.common.model.UserResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Bounded in-process cache of middleware responses keyed by operation and userId.
+// Concurrent misses for the same key share one in-flight middleware call (single flight),
+// and failed responses are dropped as soon as they complete so they are never served from cache:
+// user-bff's own errors and middleware's backendError, which it returns as 200 when backend fails
+// or its breaker is open.
+@Component
+public class UserStatusCache {
+
+    private final boolean enabled;
+    private final AsyncCache<String, UserResponse> cache;
+    private final Counter coalesced;
+
+    public UserStatusCache(
+            @Value("${user-status.cache.enabled:true}") boolean enabled,
+            @Value("${user-status.cache.max-size:10000}") long maxSize,
+            @Value("${user-status.cache.ttl:5s}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userStatus");
+        this.coalesced = Counter.builder("cache.coalesced")
+                .description("Lookups that joined an in-flight load instead of calling middleware")
+                .tag("cache", "userStatus")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<UserResponse> get(String operation, String userId,
+                                               Supplier<CompletableFuture<UserResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        String key = key(operation, userId);
+        countIfInFlight(key);
+        CompletableFuture<UserResponse> future = cache.get(key, (k, executor) -> loader.get());
+        future.thenAccept(response -> evictIfError(key, response));
+        return future;
+    }
+
+    // Bulk variant: cached and in-flight ids are served as-is, the loader only sees the remaining ids
+    public CompletableFuture<Map<String, UserResponse>> getAll(
+            String operation, Collection<String> userIds,
+            Function<Set<String>, CompletableFuture<Map<String, UserResponse>>> loader) {
+        if (!enabled) {
+            return loader.apply(new LinkedHashSet<>(userIds));
+        }
+
+        Map<String, String> userIdsByKey = new HashMap<>();
+        for (String userId : userIds) {
+            String key = key(operation, userId);
+            userIdsByKey.put(key, userId);
+            countIfInFlight(key);
+        }
+
+        return cache.getAll(userIdsByKey.keySet(), (missingKeys, executor) -> {
+            Set<String> missingUserIds = new LinkedHashSet<>();
+            for (String key : missingKeys) {
+                missingUserIds.add(userIdsByKey.get(key));
+            }
+            return loader.apply(missingUserIds).thenApply(responses -> {
+                Map<String, UserResponse> byKey = new HashMap<>();
+                responses.forEach((userId, response) ->
+                        byKey.put(key(operation, userId), response));
+                return byKey;
+            });
+        }).thenApply(responses -> {
+            Map<String, UserResponse> byUserId = new HashMap<>();
+            responses.forEach((key, response) -> {
+                evictIfError(key, response);
+                byUserId.put(userIdsByKey.get(key), response);
+            });
+            return byUserId;
+        });
+    }
+
+    private void countIfInFlight(String key) {
+        CompletableFuture<UserResponse> existing = cache.asMap().get(key);
+        if (existing != null && !existing.isDone()) {
+            coalesced.increment();
+        }
+    }
+
+    private void evictIfError(String key, UserResponse response) {
+        if (response.failed()) {
+            CompletableFuture<UserResponse> cached = cache.asMap().get(key);
+            if (cached != null && cached.getNow(null) == response) {
+                cache.asMap().remove(key, cached);
+            }
+        }
+    }
+
+    private static String key(String operation, String userId) {
+        return operation + ':' + userId;
+    }
+}
@@ -0,0 +1,98 @@
+package com.netflix.oss.userbff.soap;
+
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.SOAPEnvelope;
+import jakarta.xml.soap.SOAPException;
+import jakarta.xml.soap.SOAPHeader;
+import jakarta.xml.soap.SOAPMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageException;
+import org.springframework.ws.stream.StreamingPayload;
+import org.springframework.ws.stream.StreamingWebServiceMessage;
+import org.springframework.ws.transport.TransportConstants;
+import org.springframework.ws.transport.TransportOutputStream;
+import org.w3c.dom.Node;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// SAAJ response whose payload can be a StreamingPayload. Spring-WS's JAXB method processors hand
+// one over instead of marshalling into the SAAJ body, and it is marshalled straight to the
+// transport through StAX when the response is written, so a large response is never held as a
+// DOM tree or a serialised copy. Faults, and responses that carry SOAP header entries, are
+// written through SAAJ as before.
+public class StreamingSaajSoapMessage extends SaajSoapMessage implements StreamingWebServiceMessage {
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private StreamingPayload streamingPayload;
+
+    public StreamingSaajSoapMessage(SOAPMessage soapMessage, MessageFactory messageFactory) {
+        super(soapMessage, true, messageFactory);
+    }
+
+    @Override
+    public void setStreamingPayload(StreamingPayload payload) {
+        this.streamingPayload = payload;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (streamingPayload == null || hasFault()) {
+            super.writeTo(outputStream);
+            return;
+        }
+
+        try {
+            SOAPEnvelope envelope = getSaajMessage().getSOAPPart().getEnvelope();
+            if (hasHeaderEntries(envelope.getHeader())) {
+                writePayloadToBody();
+                super.writeTo(outputStream);
+                return;
+            }
+
+            if (outputStream instanceof TransportOutputStream transportOutputStream) {
+                transportOutputStream.addHeader(TransportConstants.HEADER_CONTENT_TYPE,
+                        getVersion().getContentType() + "; charset=utf-8");
+            }
+            String prefix = envelope.getPrefix();
+            String namespace = envelope.getNamespaceURI();
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(outputStream, "UTF-8");
+            writer.writeStartElement(prefix, "Envelope", namespace);
+            writer.writeNamespace(prefix, namespace);
+            writer.writeEmptyElement(prefix, "Header", namespace);
+            writer.writeStartElement(prefix, "Body", namespace);
+            streamingPayload.writeTo(writer);
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.flush();
+            writer.close();
+            outputStream.flush();
+        } catch (SOAPException | XMLStreamException e) {
+            throw new SaajSoapMessageException("Could not write message to OutputStream: " + e.getMessage(), e);
+        }
+    }
+
+    private void writePayloadToBody() throws SOAPException, XMLStreamException {
+        XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(new DOMResult(getSaajMessage().getSOAPBody()));
+        streamingPayload.writeTo(writer);
+        writer.flush();
+        streamingPayload = null;
+    }
+
+    private static boolean hasHeaderEntries(SOAPHeader header) {
+        if (header == null) {
+            return false;
+        }
+        for (Node child = header.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package com.netflix.oss.userbff.soap;
+
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+// Creates StreamingSaajSoapMessage for responses; requests are still parsed by SAAJ
+public class StreamingSaajSoapMessageFactory extends SaajSoapMessageFactory {
+
+    @Override
+    public SaajSoapMessage createWebServiceMessage() {
+        return new StreamingSaajSoapMessage(super.createWebServiceMessage().getSaajMessage(), getMessageFactory());
+    }
+}
@@ -0,0 +1,13 @@
+package com.netflix.oss.userbff.soap;
+
+import org.springframework.ws.soap.server.endpoint.annotation.FaultCode;
+import org.springframework.ws.soap.server.endpoint.annotation.SoapFault;
+
+// Answered with a Client fault: the caller has to split the request, retrying it will not help
+@SoapFault(faultCode = FaultCode.CLIENT)
+public class TooManyUserIdsException extends RuntimeException {
+
+    public TooManyUserIdsException(int userIds, int maxUserIds) {
+        super("GetUserStatusBatchRequest has " + userIds + " userIds, at most " + maxUserIds + " are allowed");
+    }
+}
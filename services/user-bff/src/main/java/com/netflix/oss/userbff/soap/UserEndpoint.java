@@ -1,18 +1,32 @@
 package com.netflix.oss.userbff.soap;
 
+import com.netflix.oss.common.model.UserRequest;
+import com.netflix.oss.common.model.UserResponse;
 import com.netflix.oss.userbff.service.MiddlewareService;
-import jakarta.xml.bind.JAXBElement;
+import com.netflix.oss.userbff.service.UserStatusCache;
+import com.netflix.oss.userbff.soap.generated.GetUserStatusBatchRequest;
+import com.netflix.oss.userbff.soap.generated.GetUserStatusBatchResponse;
+import com.netflix.oss.userbff.soap.generated.GetUserStatusRequest;
+import com.netflix.oss.userbff.soap.generated.GetUserStatusResponse;
+import com.netflix.oss.userbff.soap.generated.UserStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
 import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 
-import javax.xml.namespace.QName;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
+// Request and response types are generated from xsd/users.xsd. Spring-WS keeps one JAXBContext
+// per type, and responses are marshalled straight to the transport by StreamingSaajSoapMessage.
 @Endpoint
 public class UserEndpoint {
 
@@ -20,72 +34,97 @@ public class UserEndpoint {
     private static final String NAMESPACE_URI = "http://netflix.oss/user";
 
     private final MiddlewareService middlewareService;
+    private final UserStatusCache userStatusCache;
+    private final int maxBatchSize;
+    private final int maxUserIds;
+    private final int maxConcurrentChunks;
 
-    public UserEndpoint(MiddlewareService middlewareService) {
+    public UserEndpoint(MiddlewareService middlewareService, UserStatusCache userStatusCache,
+                        @Value("${middleware.batch.max-size:100}") int maxBatchSize,
+                        @Value("${soap.batch.max-user-ids:1000}") int maxUserIds,
+                        @Value("${soap.batch.max-concurrent-chunks:4}") int maxConcurrentChunks) {
         this.middlewareService = middlewareService;
+        this.userStatusCache = userStatusCache;
+        this.maxBatchSize = maxBatchSize;
+        this.maxUserIds = maxUserIds;
+        this.maxConcurrentChunks = maxConcurrentChunks;
     }
 
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "GetUserStatusRequest")
     @ResponsePayload
-    public JAXBElement<GetUserStatusResponse> getUserStatus(@RequestPayload JAXBElement<GetUserStatusRequest> request) {
-        GetUserStatusRequest req = request.getValue();
-        logger.info("SOAP request for user status with userId: {}", req.getUserId());
+    public GetUserStatusResponse getUserStatus(@RequestPayload GetUserStatusRequest request) {
+        logger.debug("SOAP request for user status with userId: {}", request.getUserId());
         
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("userId", req.getUserId());
-        payload.put("operation", "getUserStatus");
-        payload.put("source", "soap-api");
+        UserRequest payload = UserRequest.forUser("getUserStatus", request.getUserId(), "soap-api");
         
-        Map<String, Object> middlewareResponse = middlewareService.callMiddleware(payload);
+        // Spring-WS dispatches synchronously, so the endpoint waits on the async call; it still
+        // shares the in-flight limit and connection pool with the REST and GraphQL paths
+        UserResponse middlewareResponse = userStatusCache
+                .get("getUserStatus", request.getUserId(), () -> middlewareService.callMiddlewareAsync(payload))
+                .join();
         
         GetUserStatusResponse response = new GetUserStatusResponse();
-        response.setUserId(req.getUserId());
-        response.setStatus("ACTIVE");
-        response.setServedBy((String) middlewareResponse.getOrDefault("servedBy", "unknown"));
-        response.setMtlsVerified((Boolean) middlewareResponse.getOrDefault("mtlsVerified", false));
-        response.setClientCN((String) middlewareResponse.getOrDefault("clientCN", "unknown"));
-        response.setBackendVersion((String) middlewareResponse.getOrDefault("backendVersion", "unknown"));
+        response.setUserId(request.getUserId());
+        response.setStatus(status(middlewareResponse));
+        response.setServedBy(Objects.requireNonNullElse(middlewareResponse.servedBy(), "unknown"));
+        response.setMtlsVerified(Objects.requireNonNullElse(middlewareResponse.mtlsVerified(), false));
+        response.setClientCN(Objects.requireNonNullElse(middlewareResponse.clientCN(), "unknown"));
+        response.setBackendVersion(Objects.requireNonNullElse(middlewareResponse.backendVersion(), "unknown"));
         
-        return new JAXBElement<>(
-                new QName(NAMESPACE_URI, "GetUserStatusResponse"),
-                GetUserStatusResponse.class,
-                response
-        );
+        return response;
     }
 
-    // Request class
-    public static class GetUserStatusRequest {
-        private String userId;
-
-        public String getUserId() { return userId; }
-        public void setUserId(String userId) { this.userId = userId; }
+    // Requests with more than soap.batch.max-user-ids ids get a Client fault. The rest go to
+    // middleware in forward-batch calls of at most middleware.batch.max-size, with at most
+    // soap.batch.max-concurrent-chunks of them in flight, so one envelope cannot take every
+    // soap-api bulkhead permit; statuses come back in request order
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "GetUserStatusBatchRequest")
+    @ResponsePayload
+    public GetUserStatusBatchResponse getUserStatusBatch(@RequestPayload GetUserStatusBatchRequest request) {
+        List<String> userIds = request.getUserId();
+        logger.debug("SOAP request for user status with {} userIds", userIds.size());
+        if (userIds.size() > maxUserIds) {
+            throw new TooManyUserIdsException(userIds.size(), maxUserIds);
+        }
+        
+        Map<String, UserResponse> responses = new HashMap<>();
+        Deque<CompletableFuture<Map<String, UserResponse>>> chunks = new ArrayDeque<>();
+        for (int from = 0; from < userIds.size(); from += maxBatchSize) {
+            if (chunks.size() >= maxConcurrentChunks) {
+                responses.putAll(chunks.removeFirst().join());
+            }
+            List<String> chunk = userIds.subList(from, Math.min(userIds.size(), from + maxBatchSize));
+            chunks.addLast(userStatusCache.getAll("getUserStatus", chunk,
+                    missing -> middlewareService.getUserStatuses(missing, "soap-api")));
+        }
+        while (!chunks.isEmpty()) {
+            responses.putAll(chunks.removeFirst().join());
+        }
+        
+        GetUserStatusBatchResponse response = new GetUserStatusBatchResponse();
+        for (String userId : userIds) {
+            UserResponse middlewareResponse = responses.get(userId);
+            if (middlewareResponse == null) {
+                middlewareResponse = UserResponse.error("No response from middleware");
+            }
+            response.getUserStatus().add(toUserStatus(userId, middlewareResponse));
+        }
+        return response;
     }
 
-    // Response class
-    public static class GetUserStatusResponse {
-        private String userId;
-        private String status;
-        private String servedBy;
-        private Boolean mtlsVerified;
-        private String clientCN;
-        private String backendVersion;
+    private static UserStatus toUserStatus(String userId, UserResponse response) {
+        UserStatus userStatus = new UserStatus();
+        userStatus.setUserId(userId);
+        userStatus.setStatus(status(response));
+        userStatus.setServedBy(Objects.requireNonNullElse(response.servedBy(), "unknown"));
+        userStatus.setMtlsVerified(Objects.requireNonNullElse(response.mtlsVerified(), false));
+        userStatus.setClientCN(Objects.requireNonNullElse(response.clientCN(), "unknown"));
+        userStatus.setBackendVersion(Objects.requireNonNullElse(response.backendVersion(), "unknown"));
+        return userStatus;
+    }
 
-        public String getUserId() { return userId; }
-        public void setUserId(String userId) { this.userId = userId; }
-        
-        public String getStatus() { return status; }
-        public void setStatus(String status) { this.status = status; }
-        
-        public String getServedBy() { return servedBy; }
-        public void setServedBy(String servedBy) { this.servedBy = servedBy; }
-        
-        public Boolean getMtlsVerified() { return mtlsVerified; }
-        public void setMtlsVerified(Boolean mtlsVerified) { this.mtlsVerified = mtlsVerified; }
-        
-        public String getClientCN() { return clientCN; }
-        public void setClientCN(String clientCN) { this.clientCN = clientCN; }
-        
-        public String getBackendVersion() { return backendVersion; }
-        public void setBackendVersion(String backendVersion) { this.backendVersion = backendVersion; }
+    // A rejected or failed middleware call says nothing about the user
+    private static String status(UserResponse response) {
+        return response.failed() ? "UNKNOWN" : "ACTIVE";
     }
 }
@@ -28,17 +28,18 @@ done
 
 # Create service user and directories
 useradd -r -m -s /bin/bash $SERVICE_USER || true
-mkdir -p /opt/$SERVICE_NAME /var/log/$SERVICE_NAME
+mkdir -p /opt/$SERVICE_NAME /opt/$SERVICE_NAME/state /var/log/$SERVICE_NAME
 
 # Clone and build
 cd /tmp
 git clone $GITHUB_REPO netflix-oss
-cd netflix-oss/services/$SERVICE_NAME
-mvn clean package -DskipTests -q
-cp target/*.jar /opt/$SERVICE_NAME/app.jar
+cd netflix-oss/services
+mvn -pl $SERVICE_NAME -am clean package -DskipTests -q
+cp $SERVICE_NAME/target/$SERVICE_NAME-*.jar /opt/$SERVICE_NAME/app.jar
 
 # Set permissions
 chown -R $SERVICE_USER:$SERVICE_USER /opt/$SERVICE_NAME /var/log/$SERVICE_NAME
+chmod 700 /opt/$SERVICE_NAME/state
 
 # Create systemd service
 cat > /etc/systemd/system/$SERVICE_NAME.service << EOF
@@ -50,7 +51,7 @@ After=network.target
 Type=simple
 User=$SERVICE_USER
 WorkingDirectory=/opt/$SERVICE_NAME
-ExecStart=/usr/bin/java -Xms256m -Xmx512m -jar /opt/$SERVICE_NAME/app.jar --server.port=$SERVICE_PORT --spring.config.import=optional:configserver:http://$CONFIG_HOST:$CONFIG_PORT --eureka.client.service-url.defaultZone=http://$EUREKA_HOST:$EUREKA_PORT/eureka/
+ExecStart=/usr/bin/java -Xms256m -Xmx512m -jar /opt/$SERVICE_NAME/app.jar --server.port=$SERVICE_PORT --spring.config.import=optional:configsnapshot:http://$CONFIG_HOST:$CONFIG_PORT --config.snapshot.path=/opt/$SERVICE_NAME/state/$SERVICE_NAME-config.json.gz --eureka.client.service-url.defaultZone=http://$EUREKA_HOST:$EUREKA_PORT/eureka/
 Restart=always
 RestartSec=10
 
@@ -31,7 +31,7 @@ done
 
 # Create service user and directories
 useradd -r -m -s /bin/bash $SERVICE_USER || true
-mkdir -p /opt/$SERVICE_NAME /opt/$SERVICE_NAME/certs /var/log/$SERVICE_NAME
+mkdir -p /opt/$SERVICE_NAME /opt/$SERVICE_NAME/state /opt/$SERVICE_NAME/certs /opt/$SERVICE_NAME/certs/crl /var/log/$SERVICE_NAME
 
 # Setup mTLS certificates
 echo "$CA_CERT" > /opt/$SERVICE_NAME/certs/ca.crt
@@ -46,12 +46,13 @@ keytool -import -trustcacerts -alias ca -file ca.crt -keystore truststore.p12 -s
 # Clone and build
 cd /tmp
 git clone $GITHUB_REPO netflix-oss
-cd netflix-oss/services/$SERVICE_NAME
-mvn clean package -DskipTests -q
-cp target/*.jar /opt/$SERVICE_NAME/app.jar
+cd netflix-oss/services
+mvn -pl $SERVICE_NAME -am clean package -DskipTests -q
+cp $SERVICE_NAME/target/$SERVICE_NAME-*-exec.jar /opt/$SERVICE_NAME/app.jar
 
 # Set permissions
 chown -R $SERVICE_USER:$SERVICE_USER /opt/$SERVICE_NAME /var/log/$SERVICE_NAME
+chmod 700 /opt/$SERVICE_NAME/state
 chmod 600 /opt/$SERVICE_NAME/certs/*.key /opt/$SERVICE_NAME/certs/*.p12
 
 # Create systemd service
@@ -74,7 +75,8 @@ ExecStart=/usr/bin/java -Xms256m -Xmx512m -jar /opt/$SERVICE_NAME/app.jar \
   --server.ssl.trust-store=/opt/$SERVICE_NAME/certs/truststore.p12 \
   --server.ssl.trust-store-password=changeit \
   --server.ssl.trust-store-type=PKCS12 \
-  --spring.config.import=optional:configserver:http://$CONFIG_HOST:$CONFIG_PORT \
+  --spring.config.import=optional:configsnapshot:http://$CONFIG_HOST:$CONFIG_PORT \
+  --config.snapshot.path=/opt/$SERVICE_NAME/state/$SERVICE_NAME-config.json.gz \
   --eureka.client.service-url.defaultZone=http://$EUREKA_HOST:$EUREKA_PORT/eureka/ \
   --backend.url=http://$BACKEND_HOST:$BACKEND_PORT
 Restart=always